@@ -0,0 +1,46 @@
+package mazebench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность генерации лабиринтов. Размеры берутся с чётными и нечётными сторонами, так как
+ * для чётных генератор прогрызает дополнительный коридор
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({"501x501", "1000x1000", "2001x2000"})
+    public String size;
+
+    @Param({"1", "42"})
+    public long seed;
+
+    @Param({"sequential", "parallel", "streaming"})
+    public String generator;
+
+    private int rowsQuantity;
+    private int columnQuantity;
+    private MethodHandle createMaze;
+
+    @Setup
+    public void setUp() {
+        int[] dimensions = MazeApi.parseSize(size);
+        rowsQuantity = dimensions[0];
+        columnQuantity = dimensions[1];
+        createMaze = MazeApi.generator(generator);
+    }
+
+    @Benchmark
+    public Object createMaze() throws Throwable {
+        return (Object) createMaze.invokeExact(rowsQuantity, columnQuantity, new SplittableRandom(seed));
+    }
+}
@@ -0,0 +1,167 @@
+package mazebench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Доступ к классам лабиринта из бенчмарков. Классы проекта лежат в пакете по умолчанию, а JMH требует, чтобы
+ * бенчмарки были в именованном пакете, из которого пакет по умолчанию недоступен. Поэтому нужные методы
+ * находятся один раз через MethodHandle, а лабиринты и пути передаются как Object
+ */
+final class MazeApi {
+
+    private static final Class<?> MAZE;
+    private static final Class<?> PATH;
+    private static final Class<?> BIT_MATRIX;
+
+    private static final MethodHandle NEW_MAZE;
+    private static final MethodHandle PATH_LENGTH;
+    private static final MethodHandle GENERATOR_FOR_NAME;
+    private static final MethodHandle GENERATE;
+    private static final MethodHandle SET_CELL;
+    private static final MethodHandle PARALLEL_WAVE;
+    private static final MethodHandle IS_REACHABLE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MAZE = Class.forName("Maze");
+            PATH = Class.forName("Path");
+            BIT_MATRIX = Class.forName("BitMatrix");
+            Class<?> generatorAlgorithm = Class.forName("GeneratorAlgorithm");
+
+            NEW_MAZE = lookup.findConstructor(MAZE, MethodType.methodType(void.class, int.class, int.class, long.class))
+                    .asType(MethodType.methodType(Object.class, int.class, int.class, long.class));
+            PATH_LENGTH = lookup.findVirtual(PATH, "getLength", MethodType.methodType(int.class))
+                    .asType(MethodType.methodType(int.class, Object.class));
+            GENERATOR_FOR_NAME = lookup.findStatic(generatorAlgorithm, "forName",
+                    MethodType.methodType(generatorAlgorithm, String.class));
+            GENERATE = lookup.findVirtual(generatorAlgorithm, "generate",
+                    MethodType.methodType(BIT_MATRIX, int.class, int.class, SplittableRandom.class));
+            SET_CELL = lookup.findVirtual(MAZE, "setCell", MethodType.methodType(void.class, int.class, int.class, int.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, int.class, int.class));
+            PARALLEL_WAVE = lookup.findStatic(Class.forName("PathFinder"), "getPathByParallelWaveAlgorithm",
+                    MethodType.methodType(PATH, MAZE, ForkJoinPool.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, ForkJoinPool.class));
+            IS_REACHABLE = lookup.findStatic(Class.forName("BitParallelPathFinder"), "isReachable",
+                    MethodType.methodType(boolean.class, MAZE))
+                    .asType(MethodType.methodType(boolean.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private MazeApi() {
+    }
+
+    /**
+     * @param size размер в виде "рядыxколонки", например "1001x1000"
+     * @return количество рядов и колонок
+     */
+    static int[] parseSize(String size) {
+        int separator = size.indexOf('x');
+        return new int[]{Integer.parseInt(size.substring(0, separator)), Integer.parseInt(size.substring(separator + 1))};
+    }
+
+    static Object newMaze(int rowsQuantity, int columnQuantity, long seed) {
+        try {
+            return (Object) NEW_MAZE.invokeExact(rowsQuantity, columnQuantity, seed);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Превращает идеальный лабиринт в лабиринт с циклами и широким фронтом волны, убирая случайные стены
+     * @param maze лабиринт
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param wallsQuantity количество убираемых стен
+     * @param seed зерно выбора стен
+     */
+    static void removeWalls(Object maze, int rowsQuantity, int columnQuantity, int wallsQuantity, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        try {
+            for (int i = 0; i < wallsQuantity; i++)
+                SET_CELL.invokeExact(maze, random.nextInt(rowsQuantity), random.nextInt(columnQuantity), 0);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * @return метод параллельного волнового алгоритма с типом (Maze, ForkJoinPool) -> Path
+     */
+    static MethodHandle parallelWave() {
+        return PARALLEL_WAVE;
+    }
+
+    /**
+     * @return метод проверки достижимости выхода с типом (Maze) -> boolean
+     */
+    static MethodHandle isReachable() {
+        return IS_REACHABLE;
+    }
+
+    /**
+     * @param generator имя алгоритма генерации (см. GeneratorAlgorithm)
+     * @return метод генерации с типом (int, int, SplittableRandom) -> BitMatrix
+     */
+    static MethodHandle generator(String generator) {
+        try {
+            return GENERATE.bindTo(GENERATOR_FOR_NAME.invoke(generator))
+                    .asType(MethodType.methodType(Object.class, int.class, int.class, SplittableRandom.class));
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * @param solver короткое имя алгоритма
+     * @return метод поиска пути с типом (Maze) -> Path
+     */
+    static MethodHandle solver(String solver) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> owner;
+            String name;
+            switch (solver) {
+                case "wave": owner = Class.forName("PathFinder"); name = "getPathByWaveAlgorithm"; break;
+                case "dfs": owner = Class.forName("PathFinder"); name = "getPathByDepthFirstSearch"; break;
+                case "recursive": owner = Class.forName("PathFinder"); name = "getPathByRecursiveAlgorithm"; break;
+                case "gridWave": owner = Class.forName("PathFinder"); name = "getPathByGridWaveAlgorithm"; break;
+                case "bidirectional": owner = Class.forName("PathFinder"); name = "getPathByBidirectionalWaveAlgorithm"; break;
+                case "aStar": owner = Class.forName("HeuristicPathFinder"); name = "getPathByAStar"; break;
+                case "jps": owner = Class.forName("HeuristicPathFinder"); name = "getPathByJumpPointSearch"; break;
+                case "parallelWave": owner = Class.forName("PathFinder"); name = "getPathByParallelWaveAlgorithm"; break;
+                case "deadEndFilling": owner = Class.forName("PathFinder"); name = "getPathByDeadEndFilling"; break;
+                case "dial": owner = Class.forName("PathFinder"); name = "getPathByDialAlgorithm"; break;
+                case "wallFollower": owner = Class.forName("LowMemoryPathFinder"); name = "getPathByWallFollower"; break;
+                case "tremaux": owner = Class.forName("LowMemoryPathFinder"); name = "getPathByTremauxAlgorithm"; break;
+                case "bitWave": owner = Class.forName("BitParallelPathFinder"); name = "getPathByBitParallelWave"; break;
+                default: throw new IllegalArgumentException("Unknown solver: " + solver);
+            }
+            return lookup.findStatic(owner, name, MethodType.methodType(PATH, MAZE))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static int pathLength(Object path) {
+        try {
+            return (int) PATH_LENGTH.invokeExact(path);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) return (RuntimeException) e;
+        if (e instanceof Error) throw (Error) e;
+        return new IllegalStateException(e);
+    }
+}
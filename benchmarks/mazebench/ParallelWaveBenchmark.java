@@ -0,0 +1,70 @@
+package mazebench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ускорение параллельного волнового алгоритма в зависимости от количества потоков пула. threads = 0 означает
+ * последовательный волновой алгоритм по клеткам (gridWave), с которым сравнивается ускорение.
+ * В идеальном лабиринте фронт волны узкий, поэтому параллельность видна в основном на лабиринтах с циклами
+ * (layout = braided, где убрана пятая часть клеток-стен)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelWaveBenchmark {
+
+    @Param({"2001x2000", "6001x6000"})
+    public String size;
+
+    @Param({"perfect", "braided"})
+    public String layout;
+
+    @Param({"0", "1", "2", "4", "8"})
+    public int threads;
+
+    private Object maze;
+    private ForkJoinPool pool;
+    private MethodHandle solve;
+
+    @Setup
+    public void setUp() throws Throwable {
+        int[] dimensions = MazeApi.parseSize(size);
+        maze = MazeApi.newMaze(dimensions[0], dimensions[1], 1);
+        if (layout.equals("braided")) {
+            MazeApi.removeWalls(maze, dimensions[0], dimensions[1], dimensions[0] * dimensions[1] / 5, 1);
+        }
+
+        MethodHandle gridWave = MazeApi.solver("gridWave");
+        if (threads == 0) {
+            solve = gridWave;
+        } else {
+            pool = new ForkJoinPool(threads);
+            solve = MethodHandles.insertArguments(MazeApi.parallelWave(), 1, pool);
+        }
+
+        int expectedLength = MazeApi.pathLength((Object) gridWave.invokeExact(maze));
+        int actualLength = MazeApi.pathLength((Object) solve.invokeExact(maze));
+        if (actualLength != expectedLength) {
+            throw new IllegalStateException("parallel wave returned a path of length " + actualLength
+                    + ", expected " + expectedLength);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) pool.shutdown();
+    }
+
+    @Benchmark
+    public Object solve() throws Throwable {
+        return (Object) solve.invokeExact(maze);
+    }
+}
@@ -0,0 +1,53 @@
+package mazebench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка достижимости выхода: заливка целых отрезков рядов по словам (reachability) в сравнении с поиском пути
+ * волновым алгоритмом по клеткам (gridWave) и битовым волновым алгоритмом по уровням (bitWave)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReachabilityBenchmark {
+
+    @Param({"2001x2000", "6001x6000"})
+    public String size;
+
+    @Param({"perfect", "braided"})
+    public String layout;
+
+    @Param({"reachability", "gridWave", "bitWave"})
+    public String method;
+
+    private Object maze;
+    private MethodHandle solve;
+
+    @Setup
+    public void setUp() throws Throwable {
+        int[] dimensions = MazeApi.parseSize(size);
+        maze = MazeApi.newMaze(dimensions[0], dimensions[1], 1);
+        if (layout.equals("braided")) {
+            MazeApi.removeWalls(maze, dimensions[0], dimensions[1], dimensions[0] * dimensions[1] / 5, 1);
+        }
+        if (!method.equals("reachability")) solve = MazeApi.solver(method);
+
+        boolean isReachable = (boolean) MazeApi.isReachable().invokeExact(maze);
+        int expectedLength = MazeApi.pathLength((Object) MazeApi.solver("gridWave").invokeExact(maze));
+        if (isReachable != (expectedLength > 0)) {
+            throw new IllegalStateException("reachability returned " + isReachable + ", path length " + expectedLength);
+        }
+    }
+
+    @Benchmark
+    public Object check() throws Throwable {
+        if (solve == null) return (boolean) MazeApi.isReachable().invokeExact(maze);
+        return (Object) solve.invokeExact(maze);
+    }
+}
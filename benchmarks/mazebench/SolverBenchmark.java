@@ -0,0 +1,52 @@
+package mazebench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность алгоритмов поиска пути на одном и том же (для данного зерна) лабиринте. Перед замерами
+ * проверяется правильность: сгенерированный лабиринт идеальный, путь в нём единственный, поэтому длина пути
+ * любого алгоритма должна совпасть с длиной пути волнового алгоритма по клеткам
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"501x501", "1000x1000", "2001x2000"})
+    public String size;
+
+    @Param({"1", "42"})
+    public long seed;
+
+    @Param({"wave", "dfs", "recursive", "gridWave", "bidirectional", "aStar", "jps", "parallelWave", "deadEndFilling", "dial",
+            "wallFollower", "tremaux", "bitWave"})
+    public String solver;
+
+    private Object maze;
+    private MethodHandle solve;
+
+    @Setup
+    public void setUp() throws Throwable {
+        int[] dimensions = MazeApi.parseSize(size);
+        maze = MazeApi.newMaze(dimensions[0], dimensions[1], seed);
+        solve = MazeApi.solver(solver);
+
+        int expectedLength = MazeApi.pathLength((Object) MazeApi.solver("gridWave").invokeExact(maze));
+        int actualLength = MazeApi.pathLength((Object) solve.invokeExact(maze));
+        if (expectedLength == 0 || actualLength != expectedLength) {
+            throw new IllegalStateException(solver + " returned a path of length " + actualLength
+                    + ", expected " + expectedLength);
+        }
+    }
+
+    @Benchmark
+    public Object solve() throws Throwable {
+        return (Object) solve.invokeExact(maze);
+    }
+}
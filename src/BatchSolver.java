@@ -0,0 +1,220 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Пакетная генерация и решение лабиринтов. Задания выполняются параллельно на ограниченном пуле потоков, а
+ * результаты отдаются по мере завершения заданий (не в порядке манифеста).
+ *
+ * Манифест состоит из строк вида "рядыxколонки зерно алгоритм" (лабиринт генерируется) или
+ * "имя_файла алгоритм" (лабиринт открывается из файла, см. MazeFile). Пустые строки и строки, начинающиеся с '#',
+ * пропускаются. Имена алгоритмов см. SolverAlgorithm.
+ *
+ * Каждое задание создаёт свой лабиринт и не делит его с другими, а MazeGenerator и алгоритмы поиска пути не имеют
+ * общего изменяемого состояния, поэтому задания независимы друг от друга
+ */
+public class BatchSolver {
+
+    /**
+     * Задание: лабиринт (заданный размером и зерном или файлом) и алгоритм поиска пути
+     */
+    public static class Job {
+
+        private final int rowsQuantity;
+        private final int columnQuantity;
+        private final long seed;
+        private final String fileName;
+        private final SolverAlgorithm algorithm;
+
+        public Job(int rowsQuantity, int columnQuantity, long seed, SolverAlgorithm algorithm) {
+            this.rowsQuantity = rowsQuantity;
+            this.columnQuantity = columnQuantity;
+            this.seed = seed;
+            this.fileName = null;
+            this.algorithm = algorithm;
+        }
+
+        public Job(String fileName, SolverAlgorithm algorithm) {
+            this.rowsQuantity = 0;
+            this.columnQuantity = 0;
+            this.seed = 0;
+            this.fileName = fileName;
+            this.algorithm = algorithm;
+        }
+
+        /**
+         * @param line строка манифеста
+         * @return задание
+         * @throws IllegalArgumentException если строка не соответствует формату
+         */
+        public static Job parse(String line) {
+            String[] tokens = line.trim().split("\\s+");
+            if (tokens.length == 2) return new Job(tokens[0], SolverAlgorithm.forName(tokens[1]));
+            if (tokens.length == 3) {
+                int separator = tokens[0].indexOf('x');
+                if (separator > 0) {
+                    try {
+                        return new Job(Integer.parseInt(tokens[0].substring(0, separator)),
+                                Integer.parseInt(tokens[0].substring(separator + 1)),
+                                Long.parseLong(tokens[1]), SolverAlgorithm.forName(tokens[2]));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Incorrect job: " + line, e);
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Incorrect job: " + line);
+        }
+
+        Maze createMaze() throws IOException {
+            return fileName != null ? Maze.open(fileName) : new Maze(rowsQuantity, columnQuantity, seed);
+        }
+
+        public SolverAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        @Override
+        public String toString() {
+            return (fileName != null ? fileName : rowsQuantity + "x" + columnQuantity + " " + seed)
+                    + " " + algorithm.getName();
+        }
+    }
+
+    /**
+     * Результат задания: длина пути (0, если выход недостижим) и время генерации (или открытия) и решения
+     */
+    public static class Result {
+
+        private final Job job;
+        private final int pathLength;
+        private final long generationNanos;
+        private final long solvingNanos;
+        private final Throwable error;
+
+        Result(Job job, int pathLength, long generationNanos, long solvingNanos, Throwable error) {
+            this.job = job;
+            this.pathLength = pathLength;
+            this.generationNanos = generationNanos;
+            this.solvingNanos = solvingNanos;
+            this.error = error;
+        }
+
+        public Job getJob() {
+            return job;
+        }
+
+        public int getPathLength() {
+            return pathLength;
+        }
+
+        public long getGenerationNanos() {
+            return generationNanos;
+        }
+
+        public long getSolvingNanos() {
+            return solvingNanos;
+        }
+
+        /**
+         * @return исключение (или OutOfMemoryError, StackOverflowError), с которым завершилось задание, или null
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * @return строка "задание \t длина \t генерация (мс) \t решение (мс)" или "задание \t ERROR \t сообщение"
+         */
+        @Override
+        public String toString() {
+            if (error != null) return job + "\tERROR\t" + error;
+            return job + "\t" + pathLength + "\t" + generationNanos / 1_000_000.0 + "\t" + solvingNanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Читает манифест целиком, поэтому ошибка в любой строке обнаруживается до начала работы
+     * @param reader источник строк манифеста
+     * @return список заданий
+     * @throws IOException при ошибке чтения
+     * @throws IllegalArgumentException если строка не соответствует формату (сообщение начинается с "Line N: ")
+     */
+    public static List<Job> readManifest(BufferedReader reader) throws IOException {
+        List<Job> jobs = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            try {
+                jobs.add(Job.parse(line));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * Выполняет одно задание в текущем потоке. Исключения не выбрасываются, а сохраняются в результате. Так же
+     * сохраняются OutOfMemoryError и StackOverflowError: их вызывает слишком большой лабиринт одного задания, а память
+     * и стек освобождаются вместе с ним. Остальные ошибки (Error) выбрасываются с текстом задания в сообщении
+     * @param job задание
+     * @return результат
+     */
+    public static Result run(Job job) {
+        try {
+            long start = System.nanoTime();
+            Maze maze = job.createMaze();
+            long generated = System.nanoTime();
+            Path path = job.getAlgorithm().solve(maze);
+            long solved = System.nanoTime();
+            return new Result(job, path.getLength(), generated - start, solved - generated, null);
+        } catch (Exception | OutOfMemoryError | StackOverflowError e) {
+            return new Result(job, 0, 0, 0, e);
+        } catch (Error e) {
+            throw new Error("Job failed: " + job, e);
+        }
+    }
+
+    /**
+     * Выполняет задания на пуле из threadsQuantity потоков. Одновременно в работе находится не больше
+     * 2 * threadsQuantity заданий, так что количество лабиринтов в памяти зависит от количества потоков. Сам список
+     * заданий при этом хранится целиком (несколько десятков байт на строку манифеста).
+     * Результаты передаются в consumer из вызывающего потока по мере завершения заданий, поэтому consumer
+     * не обязан быть потокобезопасным
+     * @param jobs задания
+     * @param threadsQuantity количество потоков
+     * @param consumer получатель результатов
+     * @throws InterruptedException если вызывающий поток прерван (незавершённые задания отменяются)
+     */
+    public static void solve(List<Job> jobs, int threadsQuantity, Consumer<Result> consumer)
+            throws InterruptedException {
+        if (threadsQuantity < 1) throw new IllegalArgumentException("Threads quantity must be positive");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadsQuantity);
+        CompletionService<Result> completionService = new ExecutorCompletionService<>(executor);
+        int maxInFlight = 2 * threadsQuantity;
+        try {
+            int submitted = 0;
+            int completed = 0;
+            while (completed < jobs.size()) {
+                while (submitted < jobs.size() && submitted - completed < maxInFlight) {
+                    Job job = jobs.get(submitted++);
+                    completionService.submit(() -> run(job));
+                }
+                consumer.accept(completionService.take().get());
+                completed++;
+            }
+        } catch (ExecutionException e) {
+            // run перехватывает все исключения, поэтому сюда попадают только ошибки (Error) с текстом задания
+            throw (Error) e.getCause();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Компактное хранилище клеток лабиринта: один бит на клетку в массиве long. Ряды лежат в массиве подряд (row-major),
+ * и каждый ряд начинается с нового слова, поэтому соседние ряды никогда не делят одно слово между собой.
+ * Установленный бит означает стену, сброшенный - проход
+ */
+public class BitMatrix {
+    private final int rowsQuantity;
+    private final int columnQuantity;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    /**
+     * Создаёт матрицу заданного размера, все клетки которой являются проходами
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     */
+    public BitMatrix(int rowsQuantity, int columnQuantity) {
+        this.rowsQuantity = rowsQuantity;
+        this.columnQuantity = columnQuantity;
+        this.wordsPerRow = (columnQuantity + 63) >>> 6;
+        this.words = new long[Math.multiplyExact(rowsQuantity, wordsPerRow)];
+    }
+
+    /**
+     * Конструктор для наследников, которые хранят слова вне кучи и переопределяют доступ к ним
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param words массив слов или null
+     */
+    protected BitMatrix(int rowsQuantity, int columnQuantity, long[] words) {
+        this.rowsQuantity = rowsQuantity;
+        this.columnQuantity = columnQuantity;
+        this.wordsPerRow = (columnQuantity + 63) >>> 6;
+        this.words = words;
+    }
+
+    /**
+     * @param y номер ряда
+     * @param x номер колонки
+     * @return true - бит клетки установлен; false - сброшен
+     */
+    public boolean get(int y, int x) {
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Устанавливает бит клетки
+     * @param y номер ряда
+     * @param x номер колонки
+     */
+    public void set(int y, int x) {
+        words[y * wordsPerRow + (x >>> 6)] |= 1L << x;
+    }
+
+    /**
+     * Сбрасывает бит клетки
+     * @param y номер ряда
+     * @param x номер колонки
+     */
+    public void clear(int y, int x) {
+        words[y * wordsPerRow + (x >>> 6)] &= ~(1L << x);
+    }
+
+    /**
+     * Устанавливает или сбрасывает бит клетки
+     * @param y номер ряда
+     * @param x номер колонки
+     * @param value новое значение бита
+     */
+    public void put(int y, int x, boolean value) {
+        if (value) set(y, x);
+        else clear(y, x);
+    }
+
+    /**
+     * Возвращает слово ряда, в котором хранятся биты колонок с wordIndex * 64 по wordIndex * 64 + 63
+     * @param y номер ряда
+     * @param wordIndex номер слова в ряду
+     * @return слово с битами клеток
+     */
+    public long getWord(int y, int wordIndex) {
+        return words[y * wordsPerRow + wordIndex];
+    }
+
+    /**
+     * Записывает слово ряда целиком. Биты за пределами последней колонки должны оставаться сброшенными
+     * @param y номер ряда
+     * @param wordIndex номер слова в ряду
+     * @param word новое слово
+     */
+    public void setWord(int y, int wordIndex, long word) {
+        words[y * wordsPerRow + wordIndex] = word;
+    }
+
+    /**
+     * Возвращает маску значащих битов слова ряда (у последнего слова часть битов лежит за пределами матрицы)
+     * @param wordIndex номер слова в ряду
+     * @return маска битов, соответствующих существующим колонкам
+     */
+    public long getWordMask(int wordIndex) {
+        int tail = columnQuantity - (wordIndex << 6);
+        return tail >= 64 ? -1L : (1L << tail) - 1;
+    }
+
+    /**
+     * Возвращает матрицу только для чтения, которая разделяет слова с этой матрицей (без копирования).
+     * Попытка изменить её клетки выбрасывает UnsupportedOperationException
+     * @return матрица только для чтения
+     * @throws UnsupportedOperationException если слова матрицы хранятся вне кучи (у наследников)
+     */
+    public BitMatrix asReadOnly() {
+        if (words == null) throw new UnsupportedOperationException("Matrix words are not stored on the heap");
+        return new BitMatrix(rowsQuantity, columnQuantity, words) {
+            @Override
+            public void set(int y, int x) {
+                throw new UnsupportedOperationException("Matrix is read-only");
+            }
+
+            @Override
+            public void clear(int y, int x) {
+                throw new UnsupportedOperationException("Matrix is read-only");
+            }
+
+            @Override
+            public void setWord(int y, int wordIndex, long word) {
+                throw new UnsupportedOperationException("Matrix is read-only");
+            }
+
+            @Override
+            public BitMatrix asReadOnly() {
+                return this;
+            }
+        };
+    }
+
+    /**
+     * @return независимая копия матрицы в куче
+     */
+    public BitMatrix copy() {
+        BitMatrix copy = new BitMatrix(rowsQuantity, columnQuantity);
+        for (int y = 0; y < rowsQuantity; y++)
+            for (int w = 0; w < wordsPerRow; w++)
+                copy.words[y * wordsPerRow + w] = getWord(y, w);
+        return copy;
+    }
+
+    public int getRowsQuantity() {
+        return rowsQuantity;
+    }
+
+    public int getColumnQuantity() {
+        return columnQuantity;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+}
@@ -0,0 +1,308 @@
+import java.util.Arrays;
+
+/**
+ * Волновой алгоритм, который работает прямо со словами битовой матрицы: за одну операцию над словом long
+ * фронт волны продвигается сразу на 64 клетки. Соседи слева и справа получаются сдвигом слова на 1 бит (с переносом
+ * крайнего бита из соседнего слова), соседи сверху и снизу - словом в той же позиции соседнего ряда, а стены и уже
+ * посещённые клетки отсекаются масками.
+ *
+ * Уровень (расстояние от старта) каждой клетки хранится по модулю 3 в двух битовых плоскостях. Этого достаточно,
+ * чтобы восстановить путь: уровни соседних посещённых клеток отличаются не больше чем на 1, поэтому предыдущий
+ * уровень определяется по остатку однозначно. Вместе с посещёнными клетками, двумя фронтами и списками слов фронта
+ * это меньше 7 бит на клетку вместо 32 бит массива порядков у волнового алгоритма по клеткам.
+ *
+ * Слова обрабатываются обычными операциями над long (без jdk.incubator.vector, которого нет в сборке без
+ * дополнительного модуля); JIT и так выполняет их по 64 клетки за операцию.
+ *
+ * Алгоритмы только читают лабиринт, поэтому их можно вызывать одновременно из разных потоков
+ */
+public class BitParallelPathFinder {
+
+    /**
+     * Возвращает путь от входа (0;0) к выходу (правый нижний угол), полученный битовым волновым алгоритмом
+     * @param maze объект готового лабиринта
+     * @return объект пути (пустой, если выход недостижим)
+     */
+    public static Path getPathByBitParallelWave(Maze maze) {
+        return getPathByBitParallelWave(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
+
+    /**
+     * Возвращает кратчайший путь между заданными клетками, полученный битовым волновым алгоритмом. Фронт
+     * раскрывается по уровням; на каждом уровне проверяются только непустые слова фронта и соседние с ними слова,
+     * поэтому работа пропорциональна размеру фронта, а не ширине лабиринта
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByBitParallelWave(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        PathFinder.getCellIndex(mazeMatrix, startY, startX);
+        PathFinder.getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
+
+        SolverProbe probe = SolverProbe.start("bitWave");
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int wordsPerRow = mazeMatrix.getWordsPerRow();
+        int wordsQuantity = Math.multiplyExact(rowsQuantity, wordsPerRow);
+
+        long[] visited = new long[wordsQuantity];
+        long[] frontier = new long[wordsQuantity];
+        long[] next = new long[wordsQuantity];
+        // Уровень клетки по модулю 3: бит в levelLow - 1, бит в levelHigh - 2, нет ни того ни другого - 0
+        long[] levelLow = new long[wordsQuantity];
+        long[] levelHigh = new long[wordsQuantity];
+
+        // Номера непустых слов фронта, а для каждого слова - уровень, на котором оно последний раз проверялось
+        int[] frontierWords = new int[wordsQuantity];
+        int[] nextWords = new int[wordsQuantity];
+        int[] wordLevel = new int[wordsQuantity];
+        Arrays.fill(wordLevel, -1);
+
+        int startWord = startY * wordsPerRow + (startX >>> 6);
+        visited[startWord] = frontier[startWord] = 1L << startX;
+        frontierWords[0] = startWord;
+        int frontierWordsQuantity = 1;
+
+        int finishWord = finishY * wordsPerRow + (finishX >>> 6);
+        long finishBit = 1L << finishX;
+
+        long reachedCells = 1;
+        long scannedWords = 0;
+        int frontierPeak = 1;
+        int level = 0;
+        while (frontierWordsQuantity > 0 && (visited[finishWord] & finishBit) == 0) {
+            level++;
+            int levelCode = level % 3;
+
+            // Новые клетки могут появиться только в словах фронта и соседних с ними, каждое проверяется один раз
+            int nextWordsQuantity = 0;
+            int levelCells = 0;
+            for (int i = 0; i < frontierWordsQuantity; i++) {
+                int frontierWord = frontierWords[i];
+                int frontierY = frontierWord / wordsPerRow;
+                int frontierW = frontierWord - frontierY * wordsPerRow;
+
+                for (int neighbor = 0; neighbor < 5; neighbor++) {
+                    int y = frontierY;
+                    int w = frontierW;
+                    if (neighbor < 4) {
+                        y += PathFinder.DIRECTION_Y[neighbor];
+                        w += PathFinder.DIRECTION_X[neighbor];
+                        if (y < 0 || y >= rowsQuantity || w < 0 || w >= wordsPerRow) continue;
+                    }
+                    int index = y * wordsPerRow + w;
+                    if (wordLevel[index] == level) continue;
+                    wordLevel[index] = level;
+                    scannedWords++;
+
+                    long word = frontier[index];
+                    long neighbors = word << 1 | word >>> 1;
+                    if (w > 0) neighbors |= frontier[index - 1] >>> 63;
+                    if (w < wordsPerRow - 1) neighbors |= frontier[index + 1] << 63;
+                    if (y > 0) neighbors |= frontier[index - wordsPerRow];
+                    if (y < rowsQuantity - 1) neighbors |= frontier[index + wordsPerRow];
+
+                    long reached = neighbors & ~mazeMatrix.getWord(y, w) & mazeMatrix.getWordMask(w) & ~visited[index];
+                    if (reached == 0) continue;
+
+                    next[index] = reached;
+                    visited[index] |= reached;
+                    if ((levelCode & 1) != 0) levelLow[index] |= reached;
+                    if ((levelCode & 2) != 0) levelHigh[index] |= reached;
+                    levelCells += Long.bitCount(reached);
+                    nextWords[nextWordsQuantity++] = index;
+                }
+            }
+
+            // Старый фронт очищается только в своих словах, после чего фронты меняются местами
+            for (int i = 0; i < frontierWordsQuantity; i++) frontier[frontierWords[i]] = 0;
+            long[] words = frontier;
+            frontier = next;
+            next = words;
+            int[] indexes = frontierWords;
+            frontierWords = nextWords;
+            nextWords = indexes;
+            frontierWordsQuantity = nextWordsQuantity;
+
+            reachedCells += levelCells;
+            frontierPeak = Math.max(frontierPeak, levelCells);
+        }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(reachedCells, scannedWords, frontierPeak);
+        }
+        if ((visited[finishWord] & finishBit) == 0) return Path.empty();
+
+        // Спуск от финиша к старту: на каждом шаге в посещённого соседа с уровнем на 1 меньше (по модулю 3)
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+        PathBuilder allSteps = new PathBuilder(finishY, finishX);
+        int y = finishY;
+        int x = finishX;
+        while (y != startY || x != startX) {
+            int previousCode = (getLevelCode(levelLow, levelHigh, y * wordsPerRow + (x >>> 6), x) + 2) % 3;
+            for (int direction = 0; direction < 4; direction++) {
+                int nextY = y + PathFinder.DIRECTION_Y[direction];
+                int nextX = x + PathFinder.DIRECTION_X[direction];
+                if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+
+                int index = nextY * wordsPerRow + (nextX >>> 6);
+                if ((visited[index] & (1L << nextX)) != 0
+                        && getLevelCode(levelLow, levelHigh, index, nextX) == previousCode) {
+                    allSteps.step(direction);
+                    y = nextY;
+                    x = nextX;
+                    break;
+                }
+            }
+        }
+
+        // Переворот пути, так как это путь от финиша к старту
+        Path path = allSteps.buildReversed();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
+    }
+
+    /**
+     * Проверяет, достижим ли выход (правый нижний угол) от входа (0;0)
+     * @param maze объект готового лабиринта
+     * @return true - выход достижим
+     */
+    public static boolean isReachable(Maze maze) {
+        return isReachable(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
+
+    /**
+     * Проверяет, достижим ли финиш от старта. Уровни не нужны, поэтому ряд заливается не на одну клетку за шаг,
+     * а сразу целыми отрезками проходов: сложение (open + seeds) переносом проходит через весь отрезок единиц
+     * от клетки-семени до стены, и (open + seeds) ^ open отмечает этот отрезок (заливка в обратную сторону -
+     * то же самое над перевёрнутыми словами). Ряды, в которых появились новые клетки, ставят в очередь соседние
+     * ряды, если под новыми клетками у них есть не достигнутые проходы. Работа сводится к последовательным
+     * проходам по словам рядов, поэтому скорость ограничена в основном пропускной способностью памяти
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return true - финиш достижим (false, если одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static boolean isReachable(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        PathFinder.getCellIndex(mazeMatrix, startY, startX);
+        PathFinder.getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return false;
+
+        SolverProbe probe = SolverProbe.start("reachability");
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int wordsPerRow = mazeMatrix.getWordsPerRow();
+        long[] reached = new long[Math.multiplyExact(rowsQuantity, wordsPerRow)];
+        int startWord = startX >>> 6;
+        int finishWord = finishY * wordsPerRow + (finishX >>> 6);
+        long finishBit = 1L << finishX;
+
+        // Стек рядов, которые нужно залить; каждый ряд лежит в нём не больше одного раза. Для ряда запоминаются
+        // крайние слова, под которыми в соседних рядах появились новые клетки: заливка начинается только с них
+        int[] rowsStack = new int[rowsQuantity];
+        boolean[] isQueued = new boolean[rowsQuantity];
+        int[] dirtyFirstWord = new int[rowsQuantity];
+        int[] dirtyLastWord = new int[rowsQuantity];
+        Arrays.fill(dirtyFirstWord, Integer.MAX_VALUE);
+        Arrays.fill(dirtyLastWord, -1);
+        int size = 0;
+        rowsStack[size++] = startY;
+        isQueued[startY] = true;
+        dirtyFirstWord[startY] = dirtyLastWord[startY] = startWord;
+
+        // Заливка ряда; вне обрабатываемых слов массив всегда нулевой
+        long[] fill = new long[wordsPerRow];
+        long filledRows = 0;
+        long scannedWords = 0;
+        int stackPeak = 1;
+        while (size > 0 && (reached[finishWord] & finishBit) == 0) {
+            int y = rowsStack[--size];
+            isQueued[y] = false;
+            int first = dirtyFirstWord[y];
+            int last = dirtyLastWord[y];
+            dirtyFirstWord[y] = Integer.MAX_VALUE;
+            dirtyLastWord[y] = -1;
+            filledRows++;
+            int rowOffset = y * wordsPerRow;
+
+            // Семена - не достигнутые проходы под достигнутыми клетками соседних рядов (и старт). Отрезки заливаются
+            // к старшим битам, а перенос из старшего бита продолжает отрезок в следующем слове
+            long carry = 0;
+            int w = first;
+            for (; w < wordsPerRow && (w <= last || carry != 0); w++) {
+                long open = ~mazeMatrix.getWord(y, w) & mazeMatrix.getWordMask(w);
+                long seeds = carry;
+                if (w <= last) {
+                    if (y > 0) seeds |= reached[rowOffset + w - wordsPerRow];
+                    if (y < rowsQuantity - 1) seeds |= reached[rowOffset + w + wordsPerRow];
+                    if (y == startY && w == startWord) seeds |= 1L << startX;
+                    seeds &= ~reached[rowOffset + w];
+                }
+                seeds &= open;
+                fill[w] = ((open + seeds) ^ open) & open | seeds;
+                carry = fill[w] >>> 63;
+            }
+            int upper = w - 1;
+
+            // Затем то же самое к младшим битам над перевёрнутыми словами
+            carry = 0;
+            for (w = upper; w >= 0 && (w >= first || carry != 0); w--) {
+                long reversedOpen = Long.reverse(~mazeMatrix.getWord(y, w) & mazeMatrix.getWordMask(w));
+                long seeds = (Long.reverse(fill[w]) | carry) & reversedOpen;
+                long reversedFill = ((reversedOpen + seeds) ^ reversedOpen) & reversedOpen | seeds;
+                fill[w] = Long.reverse(reversedFill);
+                carry = reversedFill >>> 63;
+            }
+            int lower = w + 1;
+            scannedWords += 2L * (upper - lower + 1);
+
+            // Новые клетки отмечаются, а соседние ряды, где под ними есть не достигнутые проходы, ставятся в очередь
+            for (w = lower; w <= upper; w++) {
+                long added = fill[w] & ~reached[rowOffset + w];
+                fill[w] = 0;
+                if (added == 0) continue;
+                reached[rowOffset + w] |= added;
+                if (y > 0 && (added & ~mazeMatrix.getWord(y - 1, w) & ~reached[rowOffset + w - wordsPerRow]) != 0) {
+                    dirtyFirstWord[y - 1] = Math.min(dirtyFirstWord[y - 1], w);
+                    dirtyLastWord[y - 1] = Math.max(dirtyLastWord[y - 1], w);
+                }
+                if (y < rowsQuantity - 1
+                        && (added & ~mazeMatrix.getWord(y + 1, w) & ~reached[rowOffset + w + wordsPerRow]) != 0) {
+                    dirtyFirstWord[y + 1] = Math.min(dirtyFirstWord[y + 1], w);
+                    dirtyLastWord[y + 1] = Math.max(dirtyLastWord[y + 1], w);
+                }
+            }
+            if (y > 0 && dirtyLastWord[y - 1] != -1 && !isQueued[y - 1]) {
+                rowsStack[size++] = y - 1;
+                isQueued[y - 1] = true;
+            }
+            if (y < rowsQuantity - 1 && dirtyLastWord[y + 1] != -1 && !isQueued[y + 1]) {
+                rowsStack[size++] = y + 1;
+                isQueued[y + 1] = true;
+            }
+            stackPeak = Math.max(stackPeak, size);
+        }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(filledRows, scannedWords, stackPeak);
+        }
+        return (reached[finishWord] & finishBit) != 0;
+    }
+
+    /**
+     * @return уровень клетки по модулю 3
+     */
+    private static int getLevelCode(long[] levelLow, long[] levelHigh, int index, int x) {
+        return (int) (levelLow[index] >>> x) & 1 | ((int) (levelHigh[index] >>> x) & 1) << 1;
+    }
+}
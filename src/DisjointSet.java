@@ -0,0 +1,53 @@
+/**
+ * Система непересекающихся множеств (union-find) над узлами с ид от 0 до size - 1. Хранит только примитивные массивы,
+ * использует объединение по рангу и сокращение пути, поэтому каждая операция выполняется почти за O(1)
+ */
+public class DisjointSet {
+    private final int[] parent;
+    private final byte[] rank;
+
+    /**
+     * Создаёт набор, в котором каждый узел является отдельным множеством
+     * @param size количество узлов
+     */
+    public DisjointSet(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        for (int i = 0; i < size; i++) parent[i] = i;
+    }
+
+    /**
+     * Возвращает представителя множества, в которое входит узел, попутно сокращая путь к нему (path halving)
+     * @param id ид узла
+     * @return ид представителя множества
+     */
+    public int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Объединяет множества двух узлов
+     * @param firstId ид первого узла
+     * @param secondId ид второго узла
+     * @return true - множества были объединены; false - узлы уже находились в одном множестве
+     */
+    public boolean union(int firstId, int secondId) {
+        int firstRoot = find(firstId);
+        int secondRoot = find(secondId);
+        if (firstRoot == secondRoot) return false;
+
+        if (rank[firstRoot] < rank[secondRoot]) {
+            parent[firstRoot] = secondRoot;
+        } else if (rank[firstRoot] > rank[secondRoot]) {
+            parent[secondRoot] = firstRoot;
+        } else {
+            parent[secondRoot] = firstRoot;
+            rank[firstRoot]++;
+        }
+        return true;
+    }
+}
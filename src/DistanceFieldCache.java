@@ -0,0 +1,189 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Кэш полей расстояний для повторяющихся запросов к одной и той же цели (например, много агентов идут к одному
+ * выходу). Для пары (лабиринт, цель) волна распространяется один раз по всему лабиринту, а поле расстояний
+ * (массив int на клетку) сохраняется. Путь от любой клетки к цели затем находится спуском по полю
+ * за O(длина пути).
+ *
+ * Лабиринты различаются по ссылке, а не по содержимому. Поле, построенное до изменения лабиринта через
+ * Maze.setCell, считается устаревшим и строится заново. Размер кэша ограничен суммарным объёмом полей в байтах
+ * (поле лабиринта 10000 x 10000 занимает 400 МБ) и, если нужно, ещё и количеством полей; при переполнении
+ * вытесняются поля, к которым дольше всего не обращались (LRU). Поле больше всего кэша строится, но
+ * не сохраняется. Кэш держит ссылки на лабиринты, пока их поля не вытеснены. Методы синхронизированы, а волна
+ * распространяется вне блокировки
+ */
+public class DistanceFieldCache {
+
+    private static class Key {
+
+        private final Maze maze;
+        private final int target;
+
+        Key(Maze maze, int target) {
+            this.maze = maze;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) return false;
+            Key key = (Key) object;
+            return maze == key.maze && target == key.target;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(maze) + target;
+        }
+    }
+
+    private static class Field {
+
+        private final int[] distances;
+        private final int modificationCount;
+
+        Field(int[] distances, int modificationCount) {
+            this.distances = distances;
+            this.modificationCount = modificationCount;
+        }
+
+        /**
+         * @return объём поля в байтах (кроме расстояний поле ничего не хранит: путь восстанавливается спуском)
+         */
+        long getBytes() {
+            return distances.length * (long) Integer.BYTES;
+        }
+    }
+
+    private final long maxBytes;
+    private final int maxFieldsQuantity;
+    private final LinkedHashMap<Key, Field> fields = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maxBytes наибольший суммарный объём хранимых полей в байтах
+     */
+    public DistanceFieldCache(long maxBytes) {
+        this(maxBytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxBytes наибольший суммарный объём хранимых полей в байтах
+     * @param maxFieldsQuantity наибольшее количество хранимых полей
+     */
+    public DistanceFieldCache(long maxBytes, int maxFieldsQuantity) {
+        if (maxBytes < 1 || maxFieldsQuantity < 1) throw new IllegalArgumentException("Cache size must be positive");
+        this.maxBytes = maxBytes;
+        this.maxFieldsQuantity = maxFieldsQuantity;
+    }
+
+    /**
+     * @param maze лабиринт
+     * @param startY номер ряда клетки, откуда нужен путь
+     * @param startX номер колонки клетки, откуда нужен путь
+     * @param targetY номер ряда цели
+     * @param targetX номер колонки цели
+     * @return путь от клетки к цели (пустой, если цель недостижима или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public Path getPath(Maze maze, int startY, int startX, int targetY, int targetX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        int start = PathFinder.getCellIndex(mazeMatrix, startY, startX);
+        int[] distances = getDistances(maze, targetY, targetX);
+        if (distances == null || distances[start] == -1) return Path.empty();
+
+        // Спуск идёт от клетки к цели, то есть сразу в нужном направлении
+        return PathFinder.descendDistanceField(mazeMatrix, distances, start).build();
+    }
+
+    /**
+     * @return количество клеток в пути от клетки к цели (как Path.getLength()) или 0, если пути нет
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public int getPathLength(Maze maze, int startY, int startX, int targetY, int targetX) {
+        int start = PathFinder.getCellIndex(maze.getCells(), startY, startX);
+        int[] distances = getDistances(maze, targetY, targetX);
+        return distances == null ? 0 : distances[start] + 1;
+    }
+
+    /**
+     * @return поле расстояний до цели или null, если цель стена
+     */
+    private int[] getDistances(Maze maze, int targetY, int targetX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        int target = PathFinder.getCellIndex(mazeMatrix, targetY, targetX);
+        if (mazeMatrix.get(targetY, targetX)) return null;
+
+        Key key = new Key(maze, target);
+        int modificationCount = maze.getModificationCount();
+        synchronized (this) {
+            Field field = fields.get(key);
+            if (field != null && field.modificationCount == modificationCount) {
+                hitCount++;
+                return field.distances;
+            }
+            missCount++;
+        }
+
+        int[] distances = PathFinder.getDistanceField(mazeMatrix, target, -1, null);
+        Field field = new Field(distances, modificationCount);
+        if (field.getBytes() > maxBytes) return distances;
+
+        synchronized (this) {
+            Field previous = fields.put(key, field);
+            if (previous != null) bytes -= previous.getBytes();
+            bytes += field.getBytes();
+
+            Iterator<Field> eldest = fields.values().iterator();
+            while (bytes > maxBytes || fields.size() > maxFieldsQuantity) {
+                bytes -= eldest.next().getBytes();
+                eldest.remove();
+                evictionCount++;
+            }
+        }
+        return distances;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return количество полей, вытесненных из-за переполнения (устаревшие поля заменяются, а не вытесняются)
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return количество хранимых полей
+     */
+    public synchronized int size() {
+        return fields.size();
+    }
+
+    /**
+     * @return суммарный объём хранимых полей в байтах
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Удаляет все поля; счётчики не сбрасываются
+     */
+    public synchronized void clear() {
+        fields.clear();
+        bytes = 0;
+    }
+}
@@ -0,0 +1,200 @@
+import java.util.Arrays;
+
+/**
+ * Сессия поиска пути в изменяемом лабиринте (например, в редакторе уровней). Используется алгоритм
+ * Lifelong Planning A* (LPA*): для каждой клетки хранится расстояние от старта g и его оценка по соседям rhs,
+ * а в очереди (IndexedHeap) лежат только клетки, у которых они не совпадают. После изменения клетки
+ * пересчитываются лишь она и её соседи, и поиск исправляет только ту часть дерева поиска, на которую повлияло
+ * изменение, вместо того чтобы строить граф и искать путь заново.
+ *
+ * Клетки лабиринта нужно изменять через setCell сессии. Если лабиринт изменён в обход сессии, getPath выбрасывает
+ * IllegalStateException. Сессия не потокобезопасна
+ */
+public class DynamicPathSession {
+
+    // "Бесконечное" расстояние; с ним и с эвристикой ключи ещё помещаются в int
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+    private final Maze maze;
+    private final BitMatrix mazeMatrix;
+    private final int rowsQuantity;
+    private final int columnQuantity;
+    private final int start;
+    private final int finish;
+    private final int finishY;
+    private final int finishX;
+
+    private final int[] distances;
+    private final int[] estimates;
+    private final IndexedHeap openList;
+    private int modificationCount;
+
+    /**
+     * Сессия для пути от входа (0;0) к выходу (правый нижний угол)
+     * @param maze лабиринт
+     */
+    public DynamicPathSession(Maze maze) {
+        this(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
+
+    /**
+     * @param maze лабиринт
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public DynamicPathSession(Maze maze, int startY, int startX, int finishY, int finishX) {
+        this.maze = maze;
+        this.mazeMatrix = maze.getCells();
+        this.rowsQuantity = mazeMatrix.getRowsQuantity();
+        this.columnQuantity = mazeMatrix.getColumnQuantity();
+        this.start = PathFinder.getCellIndex(mazeMatrix, startY, startX);
+        this.finish = PathFinder.getCellIndex(mazeMatrix, finishY, finishX);
+        this.finishY = finishY;
+        this.finishX = finishX;
+        this.modificationCount = maze.getModificationCount();
+
+        distances = new int[rowsQuantity * columnQuantity];
+        estimates = new int[rowsQuantity * columnQuantity];
+        Arrays.fill(distances, INFINITY);
+        Arrays.fill(estimates, INFINITY);
+        openList = new IndexedHeap(rowsQuantity * columnQuantity);
+        updateCell(start);
+    }
+
+    /**
+     * Изменяет клетку лабиринта и отмечает клетки, оценки которых от этого могли измениться
+     * @param y номер ряда
+     * @param x номер колонки
+     * @param value WALL или PASS
+     */
+    public void setCell(int y, int x, int value) {
+        checkModificationCount();
+        int cell = PathFinder.getCellIndex(mazeMatrix, y, x);
+        if (maze.getCell(y, x) == value) return;
+
+        maze.setCell(y, x, value);
+        modificationCount = maze.getModificationCount();
+
+        updateCell(cell);
+        for (int direction = 0; direction < 4; direction++) {
+            int nextY = y + PathFinder.DIRECTION_Y[direction];
+            int nextX = x + PathFinder.DIRECTION_X[direction];
+            if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+            updateCell(nextY * columnQuantity + nextX);
+        }
+    }
+
+    /**
+     * Исправляет дерево поиска после изменений и возвращает кратчайший путь
+     * @return путь от старта к финишу (пустой, если финиш недостижим)
+     * @throws IllegalStateException если лабиринт изменён в обход сессии
+     */
+    public Path getPath() {
+        checkModificationCount();
+        SolverProbe probe = SolverProbe.start("lpaStar");
+
+        long expandedNodes = 0;
+        int frontierPeak = openList.size();
+        while (!openList.isEmpty()
+                && (openList.peekKey() < key(finish) || estimates[finish] != distances[finish])) {
+            int current = openList.pop();
+            expandedNodes++;
+
+            if (distances[current] > estimates[current]) {
+                // Расстояние до клетки уменьшилось: оно фиксируется и передаётся соседям
+                distances[current] = estimates[current];
+            } else {
+                // Расстояние увеличилось: клетка сбрасывается и пересчитывается вместе с соседями
+                distances[current] = INFINITY;
+                updateCell(current);
+            }
+            int y = current / columnQuantity;
+            int x = current - y * columnQuantity;
+            for (int direction = 0; direction < 4; direction++) {
+                int nextY = y + PathFinder.DIRECTION_Y[direction];
+                int nextX = x + PathFinder.DIRECTION_X[direction];
+                if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+                updateCell(nextY * columnQuantity + nextX);
+            }
+            frontierPeak = Math.max(frontierPeak, openList.size());
+        }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(expandedNodes, 4 * expandedNodes, frontierPeak);
+        }
+        if (distances[finish] >= INFINITY) return Path.empty();
+
+        // От финиша к старту, каждый раз в соседа с наименьшим расстоянием (так в LPA* восстанавливается путь)
+        PathBuilder allSteps = new PathBuilder(finishY, finishX);
+        int current = finish;
+        while (current != start) {
+            int y = current / columnQuantity;
+            int x = current - y * columnQuantity;
+            int bestDirection = 0;
+            int bestDistance = INFINITY;
+            for (int direction = 0; direction < 4; direction++) {
+                int nextY = y + PathFinder.DIRECTION_Y[direction];
+                int nextX = x + PathFinder.DIRECTION_X[direction];
+                if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+
+                int next = nextY * columnQuantity + nextX;
+                if (!mazeMatrix.get(nextY, nextX) && distances[next] < bestDistance) {
+                    bestDistance = distances[next];
+                    bestDirection = direction;
+                }
+            }
+            allSteps.step(bestDirection);
+            current = allSteps.getY() * columnQuantity + allSteps.getX();
+        }
+
+        Path path = allSteps.buildReversed();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
+    }
+
+    /**
+     * Пересчитывает оценку rhs клетки по её соседям и ставит клетку в очередь, если оценка не совпадает
+     * с расстоянием g, иначе убирает её из очереди
+     */
+    private void updateCell(int cell) {
+        int y = cell / columnQuantity;
+        int x = cell - y * columnQuantity;
+
+        int estimate = INFINITY;
+        if (cell == start) {
+            if (!mazeMatrix.get(y, x)) estimate = 0;
+        } else if (!mazeMatrix.get(y, x)) {
+            for (int direction = 0; direction < 4; direction++) {
+                int nextY = y + PathFinder.DIRECTION_Y[direction];
+                int nextX = x + PathFinder.DIRECTION_X[direction];
+                if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+                if (mazeMatrix.get(nextY, nextX)) continue;
+                estimate = Math.min(estimate, distances[nextY * columnQuantity + nextX] + 1);
+            }
+        }
+        estimates[cell] = Math.min(estimate, INFINITY);
+
+        if (distances[cell] != estimates[cell]) openList.put(key(cell), cell);
+        else openList.remove(cell);
+    }
+
+    /**
+     * @return ключ клетки (min(g, rhs) + h, min(g, rhs)), сравниваемый как одно число
+     */
+    private long key(int cell) {
+        int y = cell / columnQuantity;
+        int x = cell - y * columnQuantity;
+        int distance = Math.min(distances[cell], estimates[cell]);
+        int heuristic = Math.abs(finishY - y) + Math.abs(finishX - x);
+        return ((long) (distance + heuristic) << 32) | distance;
+    }
+
+    private void checkModificationCount() {
+        if (maze.getModificationCount() != modificationCount)
+            throw new IllegalStateException("Maze was modified outside of the session");
+    }
+}
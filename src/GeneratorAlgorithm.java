@@ -0,0 +1,63 @@
+import java.util.SplittableRandom;
+
+/**
+ * Алгоритмы генерации лабиринтов, доступные по имени. Для одинаковой последовательности случайных чисел
+ * каждый алгоритм строит одинаковый лабиринт, но разные алгоритмы строят разные лабиринты
+ */
+public enum GeneratorAlgorithm {
+
+    SEQUENTIAL("sequential") {
+        @Override
+        public BitMatrix generate(int rowsQuantity, int columnQuantity, SplittableRandom random) {
+            return MazeGenerator.createMaze(rowsQuantity, columnQuantity, random);
+        }
+    },
+    PARALLEL("parallel") {
+        @Override
+        public BitMatrix generate(int rowsQuantity, int columnQuantity, SplittableRandom random) {
+            return MazeGenerator.createMazeInParallel(rowsQuantity, columnQuantity, random);
+        }
+    },
+    STREAMING("streaming") {
+        @Override
+        public BitMatrix generate(int rowsQuantity, int columnQuantity, SplittableRandom random) {
+            StreamingMazeGenerator generator = new StreamingMazeGenerator(rowsQuantity, columnQuantity, random);
+            BitMatrix mazeMatrix = new BitMatrix(rowsQuantity, columnQuantity);
+            long[] row = new long[generator.getWordsPerRow()];
+            for (int y = 0; generator.hasNextRow(); y++) {
+                generator.nextRow(row);
+                for (int w = 0; w < row.length; w++) mazeMatrix.setWord(y, w, row[w]);
+            }
+            return mazeMatrix;
+        }
+    };
+
+    private final String name;
+
+    GeneratorAlgorithm(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param random источник случайных чисел
+     * @return матрица лабиринта
+     */
+    public abstract BitMatrix generate(int rowsQuantity, int columnQuantity, SplittableRandom random);
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name имя алгоритма (например "parallel")
+     * @return алгоритм с этим именем
+     * @throws IllegalArgumentException если такого алгоритма нет
+     */
+    public static GeneratorAlgorithm forName(String name) {
+        for (GeneratorAlgorithm algorithm : values())
+            if (algorithm.name.equals(name)) return algorithm;
+        throw new IllegalArgumentException("Unknown generator: " + name);
+    }
+}
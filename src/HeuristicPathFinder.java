@@ -0,0 +1,232 @@
+import java.util.Arrays;
+
+/**
+ * Информированные алгоритмы поиска пути. В отличие от алгоритмов из PathFinder они используют оценку расстояния
+ * до выхода (манхэттенское расстояние) и в первую очередь раскрывают клетки, которые ближе к нему
+ */
+public class HeuristicPathFinder {
+
+    /**
+     * Возвращает путь, полученный с помощью алгоритма A*. Открытый список - двоичная куча на примитивах с ключом
+     * (f << 32) | h, поэтому при равных f раньше раскрывается клетка, которая ближе к выходу. Устаревшие записи
+     * в куче не удаляются, а пропускаются при извлечении. Для каждой клетки запоминается направление,
+     * из которого в неё пришли, по нему путь восстанавливается шагами в обратную сторону
+     * @param maze объект готового лабиринта
+     * @return объект пути (пустой, если выход недостижим)
+     */
+    public static Path getPathByAStar(Maze maze) {
+        return getPathByAStar(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
+
+    /**
+     * Возвращает путь между заданными клетками, полученный с помощью алгоритма A*
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByAStar(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+        int start = PathFinder.getCellIndex(mazeMatrix, startY, startX);
+        int finish = PathFinder.getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
+
+        SolverProbe probe = SolverProbe.start("aStar");
+        int[] distances = new int[rowsQuantity * columnQuantity];
+        Arrays.fill(distances, -1);
+        byte[] cameFrom = new byte[rowsQuantity * columnQuantity];
+
+        PrimitiveHeap openList = new PrimitiveHeap();
+        distances[start] = 0;
+        int startHeuristic = Math.abs(finishY - startY) + Math.abs(finishX - startX);
+        openList.push(key(startHeuristic, startHeuristic), start);
+
+        long expandedNodes = 0;
+        long scannedEdges = 0;
+        int frontierPeak = 1;
+        while (!openList.isEmpty()) {
+            long key = openList.peekKey();
+            int current = openList.pop();
+            int y = current / columnQuantity;
+            int x = current - y * columnQuantity;
+            int heuristic = (int) key;
+
+            // Запись устарела, если с тех пор до клетки нашёлся путь короче
+            if ((int) (key >>> 32) - heuristic > distances[current]) continue;
+            if (current == finish) break;
+            expandedNodes++;
+            scannedEdges += 4;
+
+            for (int direction = 0; direction < 4; direction++) {
+                int nextY = y + PathFinder.DIRECTION_Y[direction];
+                int nextX = x + PathFinder.DIRECTION_X[direction];
+                if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+                if (mazeMatrix.get(nextY, nextX)) continue;
+
+                int next = nextY * columnQuantity + nextX;
+                int distance = distances[current] + 1;
+                if (distances[next] != -1 && distances[next] <= distance) continue;
+
+                distances[next] = distance;
+                cameFrom[next] = (byte) direction;
+                int nextHeuristic = Math.abs(finishY - nextY) + Math.abs(finishX - nextX);
+                openList.push(key(distance + nextHeuristic, nextHeuristic), next);
+            }
+            frontierPeak = Math.max(frontierPeak, openList.size());
+        }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(expandedNodes, scannedEdges, frontierPeak);
+        }
+        if (distances[finish] == -1) return Path.empty();
+
+        // Путь восстанавливается от финиша к старту шагами против запомненных направлений
+        PathBuilder allSteps = new PathBuilder(finishY, finishX);
+        while (allSteps.getY() != startY || allSteps.getX() != startX) {
+            allSteps.step(3 - cameFrom[allSteps.getY() * columnQuantity + allSteps.getX()]);
+        }
+
+        Path path = allSteps.buildReversed();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
+    }
+
+    /**
+     * Возвращает путь, полученный с помощью поиска точек перехода (jump point search) для сетки с 4 направлениями.
+     * Из каждой точки перехода поиск "прыгает" вдоль направления, пропуская прямые участки коридора так же, как
+     * это делает JunctionGraph: прыжок останавливается на финише или на клетке, у которой есть боковой проход.
+     * Прыжок, упёршийся в стену без боковых проходов, ведёт в тупик и отбрасывается. Сами точки перехода
+     * раскрываются в порядке A*, поэтому найденный путь кратчайший
+     * @param maze объект готового лабиринта
+     * @return объект пути (пустой, если выход недостижим)
+     */
+    public static Path getPathByJumpPointSearch(Maze maze) {
+        return getPathByJumpPointSearch(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
+
+    /**
+     * Возвращает путь между заданными клетками, полученный с помощью поиска точек перехода
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByJumpPointSearch(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+        int start = PathFinder.getCellIndex(mazeMatrix, startY, startX);
+        int finish = PathFinder.getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
+
+        SolverProbe probe = SolverProbe.start("jps");
+        int[] distances = new int[rowsQuantity * columnQuantity];
+        Arrays.fill(distances, -1);
+        int[] previousJumpPoint = new int[rowsQuantity * columnQuantity];
+
+        PrimitiveHeap openList = new PrimitiveHeap();
+        distances[start] = 0;
+        previousJumpPoint[start] = -1;
+        int startHeuristic = Math.abs(finishY - startY) + Math.abs(finishX - startX);
+        openList.push(key(startHeuristic, startHeuristic), start);
+
+        long expandedNodes = 0;
+        long scannedEdges = 0;
+        int frontierPeak = 1;
+        while (!openList.isEmpty()) {
+            long key = openList.peekKey();
+            int current = openList.pop();
+            int y = current / columnQuantity;
+            int x = current - y * columnQuantity;
+
+            if ((int) (key >>> 32) - (int) key > distances[current]) continue;
+            if (current == finish) break;
+            expandedNodes++;
+            scannedEdges += 4;
+
+            for (int direction = 0; direction < 4; direction++) {
+                int jumpPoint = jump(mazeMatrix, y, x, direction, finishY, finishX);
+                if (jumpPoint == -1) continue;
+
+                int jumpY = jumpPoint / columnQuantity;
+                int jumpX = jumpPoint - jumpY * columnQuantity;
+                int distance = distances[current] + Math.abs(jumpY - y) + Math.abs(jumpX - x);
+                if (distances[jumpPoint] != -1 && distances[jumpPoint] <= distance) continue;
+
+                distances[jumpPoint] = distance;
+                previousJumpPoint[jumpPoint] = current;
+                int heuristic = Math.abs(finishY - jumpY) + Math.abs(finishX - jumpX);
+                openList.push(key(distance + heuristic, heuristic), jumpPoint);
+            }
+            frontierPeak = Math.max(frontierPeak, openList.size());
+        }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(expandedNodes, scannedEdges, frontierPeak);
+        }
+        if (distances[finish] == -1) return Path.empty();
+
+        // Между соседними точками перехода путь идёт по прямой, поэтому шаги между ними восстанавливаются
+        PathBuilder allSteps = new PathBuilder(finishY, finishX);
+        for (int controlPoint = finish; previousJumpPoint[controlPoint] != -1; controlPoint = previousJumpPoint[controlPoint]) {
+            int nextControlPoint = previousJumpPoint[controlPoint];
+            allSteps.moveTo(nextControlPoint / columnQuantity, nextControlPoint % columnQuantity);
+        }
+
+        Path path = allSteps.buildReversed();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
+    }
+
+    /**
+     * Прыжок из клетки в заданном направлении
+     * @param mazeMatrix матрица лабиринта
+     * @param y номер ряда клетки, из которой делается прыжок
+     * @param x номер колонки клетки, из которой делается прыжок
+     * @param direction направление (индекс в PathFinder.DIRECTION_Y/DIRECTION_X)
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return индекс клетки, на которой остановился прыжок, или -1, если прыжок невозможен или ведёт в тупик
+     */
+    private static int jump(BitMatrix mazeMatrix, int y, int x, int direction, int finishY, int finishX) {
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+        int stepY = PathFinder.DIRECTION_Y[direction];
+        int stepX = PathFinder.DIRECTION_X[direction];
+
+        while (true) {
+            y += stepY;
+            x += stepX;
+            if (y < 0 || y >= rowsQuantity || x < 0 || x >= columnQuantity || mazeMatrix.get(y, x)) return -1;
+            if (y == finishY && x == finishX) return y * columnQuantity + x;
+
+            // Боковые проходы относительно направления движения
+            boolean side;
+            if (stepY == 0) {
+                side = (y > 0 && !mazeMatrix.get(y - 1, x)) || (y < rowsQuantity - 1 && !mazeMatrix.get(y + 1, x));
+            } else {
+                side = (x > 0 && !mazeMatrix.get(y, x - 1)) || (x < columnQuantity - 1 && !mazeMatrix.get(y, x + 1));
+            }
+            if (side) return y * columnQuantity + x;
+        }
+    }
+
+    /**
+     * @param estimate полная оценка пути f = g + h
+     * @param heuristic оценка оставшегося расстояния h
+     * @return составной ключ для кучи
+     */
+    private static long key(int estimate, int heuristic) {
+        return ((long) estimate << 32) | heuristic;
+    }
+}
@@ -0,0 +1,130 @@
+import java.util.Arrays;
+
+/**
+ * Двоичная куча (минимум сверху) для значений 0..capacity-1, в которой каждое значение встречается не больше
+ * одного раза. В отличие от PrimitiveHeap для каждого значения помнится его место в куче, поэтому ключ элемента
+ * можно изменить, а сам элемент удалить за O(log n), не оставляя устаревших записей
+ */
+public class IndexedHeap {
+    private long[] keys;
+    private int[] values;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * @param capacity количество возможных значений (значения от 0 до capacity - 1)
+     */
+    public IndexedHeap(int capacity) {
+        keys = new long[64];
+        values = new int[64];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * @param value значение
+     * @return true - значение находится в куче
+     */
+    public boolean contains(int value) {
+        return positions[value] != -1;
+    }
+
+    /**
+     * Добавляет значение в кучу или, если оно уже там есть, изменяет его ключ
+     * @param key ключ (чем меньше, тем раньше будет извлечён элемент)
+     * @param value значение
+     */
+    public void put(long key, int value) {
+        int i = positions[value];
+        if (i == -1) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            siftUp(size++, key, value);
+        } else if (key < keys[i]) {
+            siftUp(i, key, value);
+        } else {
+            siftDown(i, key, value);
+        }
+    }
+
+    /**
+     * Удаляет значение из кучи, если оно там есть
+     * @param value значение
+     */
+    public void remove(int value) {
+        int i = positions[value];
+        if (i == -1) return;
+        positions[value] = -1;
+
+        // На место удалённого ставится последний элемент и просеивается в нужную сторону
+        if (i == --size) return;
+        long key = keys[size];
+        int last = values[size];
+        if (key < keys[i]) siftUp(i, key, last);
+        else siftDown(i, key, last);
+    }
+
+    /**
+     * @return ключ минимального элемента
+     */
+    public long peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * Извлекает минимальный элемент
+     * @return значение минимального элемента
+     */
+    public int pop() {
+        int top = values[0];
+        remove(top);
+        return top;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) positions[values[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i, long key, int value) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            move(parent, i);
+            i = parent;
+        }
+        keys[i] = key;
+        values[i] = value;
+        positions[value] = i;
+    }
+
+    private void siftDown(int i, long key, int value) {
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+            if (key <= keys[child]) break;
+            move(child, i);
+            i = child;
+        }
+        keys[i] = key;
+        values[i] = value;
+        positions[value] = i;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+        positions[values[to]] = to;
+    }
+}
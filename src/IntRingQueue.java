@@ -0,0 +1,57 @@
+/**
+ * Очередь значений int на кольцевом буфере. Ёмкость всегда является степенью двойки и удваивается при заполнении,
+ * поэтому добавление и извлечение не создают объектов
+ */
+public class IntRingQueue {
+    private int[] elements;
+    private int mask;
+    private int head;
+    private int tail;
+
+    public IntRingQueue() {
+        this(1024);
+    }
+
+    /**
+     * @param capacity начальная ёмкость (округляется вверх до степени двойки)
+     */
+    public IntRingQueue(int capacity) {
+        int roundedCapacity = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        elements = new int[roundedCapacity];
+        mask = roundedCapacity - 1;
+    }
+
+    public void add(int value) {
+        if (tail - head == elements.length) grow();
+        elements[tail++ & mask] = value;
+    }
+
+    public int poll() {
+        return elements[head++ & mask];
+    }
+
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    public int size() {
+        return tail - head;
+    }
+
+    public void clear() {
+        head = 0;
+        tail = 0;
+    }
+
+    /**
+     * Удваивает ёмкость, перекладывая элементы в начало нового массива
+     */
+    private void grow() {
+        int[] grown = new int[elements.length * 2];
+        for (int i = head; i != tail; i++) grown[i - head] = elements[i & mask];
+        tail -= head;
+        head = 0;
+        elements = grown;
+        mask = grown.length - 1;
+    }
+}
@@ -0,0 +1,195 @@
+import java.util.Arrays;
+
+/**
+ * Граф ключевых узлов готового лабиринта в сжатом виде (CSR). Узлами являются все клетки-проходы, кроме тех, что лежат
+ * на прямом участке коридора (тупики, повороты, развилки), а связями - прямые участки коридоров между ними.
+ * Узлы нумеруются по порядку обхода матрицы по рядам, соседи узла id хранятся в массивах neighbors и lengths
+ * на позициях с offsets[id] по offsets[id + 1] - 1, поэтому перебор соседей занимает O(степени узла)
+ */
+public class JunctionGraph {
+    private int[] vertexY;
+    private int[] vertexX;
+    private int vertexQuantity;
+
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final int[] lengths;
+
+    // Связи во время построения, до упаковки в CSR
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private int[] edgeLength;
+    private int edgeQuantity;
+
+    /**
+     * Строит граф, в котором угловые клетки входа и выхода являются узлами (как и любые углы лабиринта)
+     * @param mazeMatrix матрица лабиринта
+     */
+    public JunctionGraph(BitMatrix mazeMatrix) {
+        this(mazeMatrix, 0, 0, mazeMatrix.getRowsQuantity() - 1, mazeMatrix.getColumnQuantity() - 1);
+    }
+
+    /**
+     * Строит граф за один проход по матрице лабиринта. Для горизонтальных участков запоминается предыдущий узел
+     * в текущем ряду, для вертикальных - предыдущий узел в каждой колонке; стена обрывает участок.
+     * Две заданные клетки-прохода становятся узлами, даже если лежат на прямом участке (участок делится ими на два),
+     * чтобы поиск мог начинаться и заканчиваться в них
+     * @param mazeMatrix матрица лабиринта
+     * @param firstY номер ряда первой клетки
+     * @param firstX номер колонки первой клетки
+     * @param secondY номер ряда второй клетки
+     * @param secondX номер колонки второй клетки
+     */
+    public JunctionGraph(BitMatrix mazeMatrix, int firstY, int firstX, int secondY, int secondX) {
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+
+        vertexY = new int[16];
+        vertexX = new int[16];
+        edgeFrom = new int[16];
+        edgeTo = new int[16];
+        edgeLength = new int[16];
+
+        // Предыдущий узел в каждой колонке (-1 если участок оборван стеной)
+        int[] previousInColumn = new int[columnQuantity];
+        Arrays.fill(previousInColumn, -1);
+
+        for (int y = 0; y < rowsQuantity; y++) {
+            int previousInRow = -1;
+
+            for (int x = 0; x < columnQuantity; x++) {
+                if (mazeMatrix.get(y, x)) {
+                    previousInRow = -1;
+                    previousInColumn[x] = -1;
+                    continue;
+                }
+
+                boolean left = x > 0 && !mazeMatrix.get(y, x - 1);
+                boolean right = x < columnQuantity - 1 && !mazeMatrix.get(y, x + 1);
+                boolean up = y > 0 && !mazeMatrix.get(y - 1, x);
+                boolean down = y < rowsQuantity - 1 && !mazeMatrix.get(y + 1, x);
+
+                // Клетка на прямом участке коридора узлом не является, если только это не одна из заданных клеток
+                boolean isStraight = (left && right && !up && !down) || (up && down && !left && !right);
+                if (isStraight && !(y == firstY && x == firstX) && !(y == secondY && x == secondX)) continue;
+
+                int id = addVertex(y, x);
+                if (previousInRow != -1) addEdge(previousInRow, id, x - vertexX[previousInRow]);
+                if (previousInColumn[x] != -1) addEdge(previousInColumn[x], id, y - vertexY[previousInColumn[x]]);
+                previousInRow = id;
+                previousInColumn[x] = id;
+            }
+        }
+
+        vertexY = Arrays.copyOf(vertexY, vertexQuantity);
+        vertexX = Arrays.copyOf(vertexX, vertexQuantity);
+
+        // Упаковка связей: подсчёт степеней, префиксные суммы и раскладка соседей по местам
+        offsets = new int[vertexQuantity + 1];
+        for (int i = 0; i < edgeQuantity; i++) {
+            offsets[edgeFrom[i] + 1]++;
+            offsets[edgeTo[i] + 1]++;
+        }
+        for (int i = 0; i < vertexQuantity; i++) offsets[i + 1] += offsets[i];
+
+        neighbors = new int[edgeQuantity * 2];
+        lengths = new int[edgeQuantity * 2];
+        int[] position = Arrays.copyOf(offsets, vertexQuantity);
+        for (int i = 0; i < edgeQuantity; i++) {
+            int from = edgeFrom[i];
+            int to = edgeTo[i];
+            neighbors[position[from]] = to;
+            lengths[position[from]++] = edgeLength[i];
+            neighbors[position[to]] = from;
+            lengths[position[to]++] = edgeLength[i];
+        }
+
+        edgeFrom = null;
+        edgeTo = null;
+        edgeLength = null;
+    }
+
+    private int addVertex(int y, int x) {
+        if (vertexQuantity == vertexY.length) {
+            vertexY = Arrays.copyOf(vertexY, vertexQuantity * 2);
+            vertexX = Arrays.copyOf(vertexX, vertexQuantity * 2);
+        }
+        vertexY[vertexQuantity] = y;
+        vertexX[vertexQuantity] = x;
+        return vertexQuantity++;
+    }
+
+    private void addEdge(int from, int to, int length) {
+        if (edgeQuantity == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, edgeQuantity * 2);
+            edgeTo = Arrays.copyOf(edgeTo, edgeQuantity * 2);
+            edgeLength = Arrays.copyOf(edgeLength, edgeQuantity * 2);
+        }
+        edgeFrom[edgeQuantity] = from;
+        edgeTo[edgeQuantity] = to;
+        edgeLength[edgeQuantity++] = length;
+    }
+
+    /**
+     * Ищет ид узла по его координатам двоичным поиском (узлы упорядочены по рядам, а внутри ряда по колонкам)
+     * @param y номер ряда
+     * @param x номер колонки
+     * @return ид узла или -1, если клетка не является узлом
+     */
+    public int getVertexId(int y, int x) {
+        int low = 0;
+        int high = vertexQuantity - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compare = vertexY[middle] != y ? Integer.compare(vertexY[middle], y) : Integer.compare(vertexX[middle], x);
+            if (compare < 0) low = middle + 1;
+            else if (compare > 0) high = middle - 1;
+            else return middle;
+        }
+        return -1;
+    }
+
+    public int getVertexQuantity() {
+        return vertexQuantity;
+    }
+
+    public int getY(int id) {
+        return vertexY[id];
+    }
+
+    public int getX(int id) {
+        return vertexX[id];
+    }
+
+    /**
+     * @param id ид узла
+     * @return индекс первого соседа узла в массиве соседей
+     */
+    public int getFirstNeighborIndex(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * @param id ид узла
+     * @return индекс, следующий за последним соседом узла в массиве соседей
+     */
+    public int getEndNeighborIndex(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * @param index индекс в массиве соседей
+     * @return ид соседа
+     */
+    public int getNeighbor(int index) {
+        return neighbors[index];
+    }
+
+    /**
+     * @param index индекс в массиве соседей
+     * @return длина участка коридора до соседа (в шагах)
+     */
+    public int getLength(int index) {
+        return lengths[index];
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Алгоритмы поиска пути от входа (0;0) к выходу (правый нижний угол) или между заданными клетками с малым рабочим
+ * набором - для больших лабиринтов, открытых из файла (MazeFile, TiledMazeFile). Алгоритмы из PathFinder держат массив на каждую клетку
+ * или граф узлов всего лабиринта, а здесь кроме самого пути (2 бита на шаг) хранится не больше 2 бит на клетку.
+ * Клетки читаются только вокруг текущего положения, поэтому обращения к отображённому файлу или к тайлам
+ * идут подряд по соседним страницам.
+ *
+ * Объём работы сообщается через SolverProbe как количество раскрытых узлов в событии "search", но смысл у алгоритмов
+ * разный: у следования вдоль стены это количество ходов (клетка, через которую обход проходит несколько раз,
+ * считается каждый раз - без памяти на клетку повторы не отличить), а у алгоритма Тремо - количество разных
+ * затронутых клеток (клеток с ненулевой отметкой).
+ * Алгоритмы только читают лабиринт, поэтому их можно вызывать одновременно из разных потоков
+ */
+public class LowMemoryPathFinder {
+
+    // Повороты направления (индекс в PathFinder.DIRECTION_Y/DIRECTION_X) налево и направо
+    private static final int[] TURN_LEFT = {2, 0, 3, 1};
+    private static final int[] TURN_RIGHT = {1, 3, 0, 2};
+
+    // Порядок выбора прохода в алгоритме Тремо: сначала вниз и вправо (в сторону выхода в правом нижнем углу),
+    // затем вверх и влево
+    private static final int[] TREMAUX_ORDER = {2, 3, 1, 0};
+
+    // Отметки клеток в алгоритме Тремо
+    private static final int UNVISITED = 0;
+    private static final int ON_PATH = 1;
+    private static final int DEAD_END = 2;
+
+    /**
+     * Возвращает путь, полученный следованием вдоль стены по правилу левой руки: из каждой клетки выбирается
+     * первый проход в порядке налево, прямо, направо, назад. Шаг назад по только что пройденной клетке отменяет
+     * последний шаг пути, поэтому тупики в путь не попадают, и в лабиринте без циклов (такие строит MazeGenerator)
+     * получается единственный, то есть кратчайший путь. В лабиринте с циклами путь корректен, но может быть
+     * длиннее кратчайшего, а выход, не связанный со стеной входа, может быть не найден.
+     * Кроме пути память не используется; если обход вернулся в исходное состояние, выход недостижим.
+     * В SolverProbe сообщается количество ходов, включая возвраты из тупиков
+     * @param maze объект готового лабиринта
+     * @return объект пути (пустой, если выход не найден)
+     */
+    public static Path getPathByWallFollower(Maze maze) {
+        return getPathByWallFollower(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
+
+    /**
+     * Возвращает путь между заданными клетками, полученный следованием вдоль стены по правилу левой руки.
+     * Обход начинается с направления вправо
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш не найден или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByWallFollower(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        PathFinder.getCellIndex(mazeMatrix, startY, startX);
+        PathFinder.getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
+
+        SolverProbe probe = SolverProbe.start("wallFollower");
+        PathBuilder allSteps = new PathBuilder(startY, startX);
+        int y = startY;
+        int x = startX;
+        int heading = 3;
+        int firstDirection = -1;
+
+        long moves = 0;
+        long scannedEdges = 0;
+        int pathPeak = 1;
+        boolean isFound = y == finishY && x == finishX;
+        while (!isFound) {
+            int direction = TURN_LEFT[heading];
+            int turns = 0;
+            while (turns < 4 && !isOpen(mazeMatrix, y, x, direction)) {
+                direction = TURN_RIGHT[direction];
+                turns++;
+            }
+            scannedEdges += Math.min(turns + 1, 4);
+            if (turns == 4) break;
+
+            // Каждое следующее состояние (клетка, направление) однозначно определяет предыдущее, поэтому обход
+            // периодичен и возвращается к первому шагу, если выход недостижим
+            if (y == startY && x == startX) {
+                if (firstDirection == direction) break;
+                if (firstDirection == -1) firstDirection = direction;
+            }
+
+            if (allSteps.getLastDirection() == 3 - direction) allSteps.back();
+            else allSteps.step(direction);
+            heading = direction;
+            y += PathFinder.DIRECTION_Y[direction];
+            x += PathFinder.DIRECTION_X[direction];
+
+            moves++;
+            pathPeak = Math.max(pathPeak, allSteps.getLength());
+            isFound = y == finishY && x == finishX;
+        }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(moves, scannedEdges, pathPeak);
+        }
+        return isFound ? allSteps.build() : Path.empty();
+    }
+
+    /**
+     * Возвращает путь, полученный алгоритмом Тремо. Каждая клетка отмечается 2 битами: 0 - не посещена,
+     * 1 - лежит на текущем пути, 2 - тупик (посещена и покинута). Из клетки выбирается не посещённый соседний
+     * проход, а если его нет, клетка отмечается как тупик и путь возвращается на шаг назад. Путь не проходит
+     * через одну клетку дважды, поэтому он всегда простой, но в лабиринте с циклами не обязательно кратчайший.
+     * Отметки занимают в 16 раз меньше памяти, чем массив порядков int у волнового алгоритма.
+     * В SolverProbe сообщается количество разных затронутых клеток
+     * @param maze объект готового лабиринта
+     * @return объект пути (пустой, если выход недостижим)
+     */
+    public static Path getPathByTremauxAlgorithm(Maze maze) {
+        return getPathByTremauxAlgorithm(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
+
+    /**
+     * Возвращает путь между заданными клетками, полученный алгоритмом Тремо
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш не найден или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByTremauxAlgorithm(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+        PathFinder.getCellIndex(mazeMatrix, startY, startX);
+        PathFinder.getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
+
+        SolverProbe probe = SolverProbe.start("tremaux");
+        long[] marks = new long[Math.toIntExact(((long) mazeMatrix.getRowsQuantity() * columnQuantity + 31) >>> 5)];
+        setMark(marks, (long) startY * columnQuantity + startX, ON_PATH);
+
+        PathBuilder allSteps = new PathBuilder(startY, startX);
+        int y = startY;
+        int x = startX;
+
+        long touchedCells = 1;
+        long scannedEdges = 0;
+        int pathPeak = 1;
+        boolean isFound = y == finishY && x == finishX;
+        while (!isFound) {
+            int direction = -1;
+            for (int i = 0; i < 4 && direction == -1; i++) {
+                int candidate = TREMAUX_ORDER[i];
+                scannedEdges++;
+                if (isOpen(mazeMatrix, y, x, candidate) && getMark(marks, (long) (y + PathFinder.DIRECTION_Y[candidate])
+                        * columnQuantity + x + PathFinder.DIRECTION_X[candidate]) == UNVISITED) direction = candidate;
+            }
+
+            if (direction != -1) {
+                allSteps.step(direction);
+                y += PathFinder.DIRECTION_Y[direction];
+                x += PathFinder.DIRECTION_X[direction];
+                setMark(marks, (long) y * columnQuantity + x, ON_PATH);
+                touchedCells++;
+                pathPeak = Math.max(pathPeak, allSteps.getLength());
+                isFound = y == finishY && x == finishX;
+            } else {
+                // Тупик: клетка отмечается второй раз и путь возвращается туда, откуда в неё пришли
+                setMark(marks, (long) y * columnQuantity + x, DEAD_END);
+                if (allSteps.getLength() == 1) break;
+                allSteps.back();
+                y = allSteps.getY();
+                x = allSteps.getX();
+            }
+        }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(touchedCells, scannedEdges, pathPeak);
+        }
+        return isFound ? allSteps.build() : Path.empty();
+    }
+
+    /**
+     * @return true - соседняя клетка в заданном направлении существует и является проходом
+     */
+    private static boolean isOpen(BitMatrix mazeMatrix, int y, int x, int direction) {
+        int nextY = y + PathFinder.DIRECTION_Y[direction];
+        int nextX = x + PathFinder.DIRECTION_X[direction];
+        return nextY >= 0 && nextY < mazeMatrix.getRowsQuantity() && nextX >= 0 && nextX < mazeMatrix.getColumnQuantity()
+                && !mazeMatrix.get(nextY, nextX);
+    }
+
+    private static int getMark(long[] marks, long cell) {
+        return (int) (marks[(int) (cell >>> 5)] >>> ((cell & 31) << 1)) & 3;
+    }
+
+    private static void setMark(long[] marks, long cell, int mark) {
+        int index = (int) (cell >>> 5);
+        int shift = (int) (cell & 31) << 1;
+        marks[index] = marks[index] & ~(3L << shift) | (long) mark << shift;
+    }
+}
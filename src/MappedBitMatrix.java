@@ -0,0 +1,51 @@
+import java.nio.LongBuffer;
+
+/**
+ * Битовая матрица, слова которой лежат в отображённом в память файле (см. MazeFile). Файл отображается кусками
+ * не больше 1 ГБ, в каждом куске целое число рядов (степень двойки), поэтому номер куска и смещение в нём
+ * вычисляются сдвигом и маской. Если файл открыт только для чтения, то попытка изменить клетку
+ * приводит к ReadOnlyBufferException
+ */
+public class MappedBitMatrix extends BitMatrix {
+    private final LongBuffer[] chunks;
+    private final int rowsPerChunkShift;
+    private final int rowsPerChunkMask;
+
+    /**
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param chunks отображённые куски файла, каждый по 2^rowsPerChunkShift рядов (последний может быть короче)
+     * @param rowsPerChunkShift двоичный логарифм количества рядов в куске
+     */
+    MappedBitMatrix(int rowsQuantity, int columnQuantity, LongBuffer[] chunks, int rowsPerChunkShift) {
+        super(rowsQuantity, columnQuantity, null);
+        this.chunks = chunks;
+        this.rowsPerChunkShift = rowsPerChunkShift;
+        this.rowsPerChunkMask = (1 << rowsPerChunkShift) - 1;
+    }
+
+    @Override
+    public boolean get(int y, int x) {
+        return (getWord(y, x >>> 6) & (1L << x)) != 0;
+    }
+
+    @Override
+    public void set(int y, int x) {
+        setWord(y, x >>> 6, getWord(y, x >>> 6) | (1L << x));
+    }
+
+    @Override
+    public void clear(int y, int x) {
+        setWord(y, x >>> 6, getWord(y, x >>> 6) & ~(1L << x));
+    }
+
+    @Override
+    public long getWord(int y, int wordIndex) {
+        return chunks[y >>> rowsPerChunkShift].get((y & rowsPerChunkMask) * getWordsPerRow() + wordIndex);
+    }
+
+    @Override
+    public void setWord(int y, int wordIndex, long word) {
+        chunks[y >>> rowsPerChunkShift].put((y & rowsPerChunkMask) * getWordsPerRow() + wordIndex, word);
+    }
+}
@@ -1,13 +1,27 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
 /**
- * Преставляет собой лабиринт, основу которого представляет двумерный массив
+ * Преставляет собой лабиринт, основу которого представляет битовая матрица (один бит на клетку).
+ * Проход может иметь стоимость от 2 до MAX_COST (грязь, двери и т.п.), обычный проход стоит 1. Стоимости хранятся
+ * в отдельном массиве байт, который создаётся только при появлении первой такой клетки. Для битовой матрицы
+ * клетка со стоимостью остаётся проходом, поэтому алгоритмы, не учитывающие стоимость, считают её обычным проходом
  */
 public class Maze {
 
-    private int[][] mazeMatrix;
+    private BitMatrix cells;
+
+    // Стоимость клеток с индексом y * ширина + x (0 - обычная клетка) или null, если таких клеток нет
+    private byte[] costs;
+
+    // Увеличивается при каждом изменении клетки через setCell (см. DistanceFieldCache)
+    private int modificationCount;
 
     final public static int WALL = 1;
     final public static int PASS = 0;
     final public static int PATH = -1;
+    final public static int MAX_COST = 9;
 
 
     /**
@@ -16,99 +30,187 @@ public class Maze {
      * @param columnQuantity количество столбцов
      */
     public Maze(int rowsQuantity, int columnQuantity) {
-        mazeMatrix = MazeGenerator.createMaze(rowsQuantity, columnQuantity);
+        cells = MazeGenerator.createMaze(rowsQuantity, columnQuantity);
     }
 
-    public Maze(int[][] mazeMatrix) {
-        this.mazeMatrix = mazeMatrix;
+    /**
+     * Генерируется лабиринт с заданными размерами, одинаковый для одинакового зерна
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество столбцов
+     * @param seed зерно генератора случайных чисел
+     */
+    public Maze(int rowsQuantity, int columnQuantity, long seed) {
+        cells = MazeGenerator.createMaze(rowsQuantity, columnQuantity, new SplittableRandom(seed));
     }
 
     /**
-     * Выводит лабиринт на консоль, наглядно представляя внутреннюю матрицу и обрамляя её стенами вокруг
+     * Создаёт лабиринт из матрицы 1 (стена), 0 (проход) и 2..MAX_COST (проход с такой стоимостью)
+     * @param mazeMatrix матрица лабиринта
+     * @throws IllegalArgumentException если в матрице есть другие значения
      */
-    public void printMaze() {
-
-        for (int i = 0; i < mazeMatrix[0].length + 2; i++) System.out.print("\u2588\u2588");
-        System.out.println();
+    public Maze(int[][] mazeMatrix) {
+        cells = new BitMatrix(mazeMatrix.length, mazeMatrix.length == 0 ? 0 : mazeMatrix[0].length);
+        for (int i = 0; i < mazeMatrix.length; i++)
+            for (int j = 0; j < mazeMatrix[i].length; j++)
+                putCell(i, j, mazeMatrix[i][j]);
+    }
 
-        for (int i = 0; i < mazeMatrix.length; i++) {
+    /**
+     * @param cells битовая матрица, в которой установленный бит означает стену
+     */
+    public Maze(BitMatrix cells) {
+        this.cells = cells;
+    }
 
-            if (i == 0) System.out.print("  ");
-            else System.out.print("\u2588\u2588");
+    /**
+     * Открывает лабиринт из двоичного файла (см. MazeFile). Файл отображается в память, а не читается, поэтому
+     * лабиринт доступен сразу, независимо от размера. Лабиринт открывается только для чтения
+     * @param fileName имя файла
+     * @return лабиринт поверх отображённого файла
+     * @throws IOException при ошибке чтения или неверном формате файла
+     */
+    public static Maze open(String fileName) throws IOException {
+        return new Maze(MazeFile.open(fileName, false));
+    }
 
-            for (int j = 0; j < mazeMatrix[0].length; j++) {
-                int value = mazeMatrix[i][j];
-                if (value == PASS) System.out.print("  ");
-                else System.out.print("\u2588\u2588");
-            }
+    /**
+     * Сохраняет лабиринт в двоичный файл (см. MazeFile). Формат хранит только стены, стоимость клеток не сохраняется
+     * @param fileName имя файла
+     * @throws IOException при ошибке записи
+     */
+    public void save(String fileName) throws IOException {
+        MazeFile.save(cells, fileName);
+    }
 
-            if (i == mazeMatrix.length - 1) System.out.print("  \n");
-            else System.out.print("\u2588\u2588\n");
+    /**
+     * Выводит лабиринт на консоль, наглядно представляя внутреннюю матрицу и обрамляя её стенами вокруг
+     */
+    public void printMaze() {
+        try {
+            MazeRenderer.render(this, System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-
-        for (int i = 0; i < mazeMatrix[0].length + 2; i++) System.out.print("\u2588\u2588");
-        System.out.println();
     }
 
     /**
-     * Выводит матрицу на консоль с отображением переданного пути
+     * Выводит матрицу на консоль с отображением переданного пути. Сам лабиринт не изменяется
      * @param path
      */
     public void printMazeWithPath(Path path) {
-        int[][] mazeMatrixWithPath = this.mazeMatrix.clone();
-
-        while (path.hasNext()) {
-            Coordinates step = path.nextStep();
-            int y = step.getY();
-            int x = step.getX();
-
-            if (mazeMatrixWithPath[y][x] != PASS) {
-                System.out.println("Incorect path!");
-                return;
-            }
+        try {
+            MazeRenderer.renderWithPath(this, path, System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            mazeMatrixWithPath[y][x] = PATH;
+    /**
+     * Выводит на консоль матрицу лабиринта из 1 и 0
+     */
+    public void printMazeMatrix() {
+        try {
+            MazeRenderer.renderMatrix(this, System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        for (int i = 0; i < mazeMatrix[0].length + 2; i++) System.out.print("\u2588\u2588");
-        System.out.println();
+    /**
+     * @param y номер ряда
+     * @param x номер колонки
+     * @return true - клетка является стеной; false - проходом
+     */
+    public boolean isWall(int y, int x) {
+        return cells.get(y, x);
+    }
 
-        for (int i = 0; i < mazeMatrix.length; i++) {
+    /**
+     * @param y номер ряда
+     * @param x номер колонки
+     * @return значение клетки (WALL, PASS или стоимость от 2 до MAX_COST)
+     */
+    public int getCell(int y, int x) {
+        if (cells.get(y, x)) return WALL;
+        return costs == null ? PASS : costs[y * cells.getColumnQuantity() + x];
+    }
 
-            if (i == 0) System.out.print("//");
-            else System.out.print("\u2588\u2588");
+    /**
+     * @param y номер ряда
+     * @param x номер колонки
+     * @return стоимость входа в клетку (1 для обычного прохода) или -1 для стены
+     */
+    public int getCost(int y, int x) {
+        if (cells.get(y, x)) return -1;
+        return costs == null ? 1 : Math.max(1, costs[y * cells.getColumnQuantity() + x]);
+    }
 
-            for (int j = 0; j < mazeMatrix[0].length; j++) {
-                int value = mazeMatrix[i][j];
-                if (value == PASS) System.out.print("  ");
-                else if (value == PATH) System.out.print("//");
-                else System.out.print("\u2588\u2588");
-            }
+    /**
+     * Изменяет значение клетки
+     * @param y номер ряда
+     * @param x номер колонки
+     * @param value WALL, PASS или стоимость от 2 до MAX_COST
+     * @throws IllegalArgumentException если значение не подходит
+     * @throws UnsupportedOperationException если лабиринт только для чтения (см. MazeCache)
+     */
+    public void setCell(int y, int x, int value) {
+        putCell(y, x, value);
+        modificationCount++;
+    }
 
-            if (i == mazeMatrix.length - 1) System.out.print("//\n");
-            else System.out.print("\u2588\u2588\n");
+    private void putCell(int y, int x, int value) {
+        if (value != WALL && value != PASS && (value < 2 || value > MAX_COST))
+            throw new IllegalArgumentException("Incorrect cell value: " + value);
+
+        cells.put(y, x, value == WALL);
+        if (value > WALL) {
+            if (costs == null) costs = new byte[cells.getRowsQuantity() * cells.getColumnQuantity()];
+            costs[y * cells.getColumnQuantity() + x] = (byte) value;
+        } else if (costs != null) {
+            costs[y * cells.getColumnQuantity() + x] = 0;
         }
+    }
+
+    /**
+     * Счётчик изменений лабиринта через setCell. Изменения напрямую через getCells() не учитываются
+     * @return количество изменений клеток с момента создания лабиринта
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    public int getRowsQuantity() {
+        return cells.getRowsQuantity();
+    }
 
-        for (int i = 0; i < mazeMatrix[0].length + 2; i++) System.out.print("\u2588\u2588");
-        System.out.println();
+    public int getColumnQuantity() {
+        return cells.getColumnQuantity();
     }
 
     /**
-     * Выводит на консоль матрицу лабиринта из 1 и 0
+     * @return стоимости клеток с индексом y * ширина + x (0 - обычная клетка или стена) или null, если клеток
+     * со стоимостью нет
      */
-    public void printMazeMatrix() {
-        for (int[] row : mazeMatrix) {
-            for (int cell : row) {
-                System.out.print(cell + "\t");
-            }
-            System.out.println();
-        }
+    byte[] getCosts() {
+        return costs;
+    }
+
+    /**
+     * @return внутренняя битовая матрица, в которой установленный бит означает стену
+     */
+    public BitMatrix getCells() {
+        return cells;
     }
 
     /**
-     * @return внутренняя матрица
+     * Оставлен для совместимости: каждый вызов создаёт новую матрицу значений клеток, изменения в ней не влияют на лабиринт
+     * @return копия лабиринта в виде двумерного массива
      */
     public int[][] getMazeMatrix() {
+        int[][] mazeMatrix = new int[getRowsQuantity()][getColumnQuantity()];
+        for (int i = 0; i < mazeMatrix.length; i++)
+            for (int j = 0; j < mazeMatrix[i].length; j++)
+                mazeMatrix[i][j] = getCell(i, j);
         return mazeMatrix;
     }
 }
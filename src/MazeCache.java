@@ -0,0 +1,141 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Кэш сгенерированных лабиринтов по ключу (ряды, колонки, зерно, алгоритм). Лабиринт с тем же ключом всегда
+ * одинаковый, поэтому повторный запрос возвращает уже построенный лабиринт вместо повторной генерации.
+ * Лабиринты отдаются только для чтения (BitMatrix.asReadOnly), так как один и тот же объект получают все, кто
+ * его запросил: Maze.setCell выбрасывает UnsupportedOperationException, а для изменения нужно сделать копию
+ * (new Maze(maze.getCells().copy())).
+ *
+ * Размер кэша ограничен суммарным объёмом матриц в байтах; при переполнении вытесняются лабиринты, к которым дольше
+ * всего не обращались (LRU). Лабиринт больше всего кэша генерируется, но не сохраняется. Методы синхронизированы,
+ * а генерация выполняется вне блокировки, поэтому одновременные промахи по одному ключу могут сгенерировать
+ * лабиринт дважды (результат одинаковый)
+ */
+public class MazeCache {
+
+    private static class Key {
+
+        private final int rowsQuantity;
+        private final int columnQuantity;
+        private final long seed;
+        private final GeneratorAlgorithm algorithm;
+
+        Key(int rowsQuantity, int columnQuantity, long seed, GeneratorAlgorithm algorithm) {
+            this.rowsQuantity = rowsQuantity;
+            this.columnQuantity = columnQuantity;
+            this.seed = seed;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) return false;
+            Key key = (Key) object;
+            return rowsQuantity == key.rowsQuantity && columnQuantity == key.columnQuantity && seed == key.seed
+                    && algorithm == key.algorithm;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 31 * rowsQuantity + columnQuantity;
+            hash = 31 * hash + Long.hashCode(seed);
+            return 31 * hash + algorithm.hashCode();
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Maze> mazes = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maxBytes наибольший суммарный объём хранимых матриц в байтах
+     */
+    public MazeCache(long maxBytes) {
+        if (maxBytes < 1) throw new IllegalArgumentException("Cache size must be positive");
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param seed зерно генератора случайных чисел
+     * @param algorithm алгоритм генерации
+     * @return лабиринт только для чтения
+     */
+    public Maze get(int rowsQuantity, int columnQuantity, long seed, GeneratorAlgorithm algorithm) {
+        Key key = new Key(rowsQuantity, columnQuantity, seed, algorithm);
+        synchronized (this) {
+            Maze maze = mazes.get(key);
+            if (maze != null) {
+                hitCount++;
+                return maze;
+            }
+            missCount++;
+        }
+
+        BitMatrix mazeMatrix = algorithm.generate(rowsQuantity, columnQuantity, new SplittableRandom(seed));
+        Maze maze = new Maze(mazeMatrix.asReadOnly());
+        long mazeBytes = getBytes(mazeMatrix);
+        if (mazeBytes > maxBytes) return maze;
+
+        synchronized (this) {
+            Maze previous = mazes.put(key, maze);
+            if (previous != null) bytes -= getBytes(previous.getCells());
+            bytes += mazeBytes;
+
+            Iterator<Maze> eldest = mazes.values().iterator();
+            while (bytes > maxBytes) {
+                bytes -= getBytes(eldest.next().getCells());
+                eldest.remove();
+                evictionCount++;
+            }
+        }
+        return maze;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return количество хранимых лабиринтов
+     */
+    public synchronized int size() {
+        return mazes.size();
+    }
+
+    /**
+     * @return суммарный объём хранимых матриц в байтах
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Удаляет все лабиринты; счётчики не сбрасываются
+     */
+    public synchronized void clear() {
+        mazes.clear();
+        bytes = 0;
+    }
+
+    private static long getBytes(BitMatrix mazeMatrix) {
+        return (long) mazeMatrix.getRowsQuantity() * mazeMatrix.getWordsPerRow() * Long.BYTES;
+    }
+}
@@ -0,0 +1,132 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Двоичный формат файла лабиринта. Заголовок из 16 байт: сигнатура "MAZE", версия формата, количество рядов и
+ * количество колонок (int, little-endian). За ним ряды в том же виде, что и в BitMatrix: каждый ряд занимает целое
+ * число слов long (little-endian), установленный бит - стена. Благодаря этому файл не нужно разбирать: он
+ * отображается в память через FileChannel.map и сразу используется как матрица лабиринта
+ */
+public class MazeFile {
+
+    final static int SIGNATURE = 0x455A414D; // "MAZE" в little-endian
+    final static int VERSION = 1;
+    final static int HEADER_SIZE = 16;
+
+    // Предельный размер одного отображённого куска файла
+    private final static long MAX_CHUNK_SIZE = 1L << 30;
+
+    /**
+     * Сохраняет матрицу лабиринта в файл
+     * @param mazeMatrix матрица лабиринта
+     * @param fileName имя файла
+     * @throws IOException при ошибке записи
+     */
+    public static void save(BitMatrix mazeMatrix, String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = newBuffer(mazeMatrix.getRowsQuantity(), mazeMatrix.getColumnQuantity());
+
+            for (int y = 0; y < mazeMatrix.getRowsQuantity(); y++) {
+                for (int w = 0; w < mazeMatrix.getWordsPerRow(); w++) {
+                    if (!buffer.hasRemaining()) flush(channel, buffer);
+                    buffer.putLong(mazeMatrix.getWord(y, w));
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Сохраняет в файл лабиринт, который выдаёт потоковый генератор, не держа весь лабиринт в памяти
+     * @param generator потоковый генератор
+     * @param fileName имя файла
+     * @throws IOException при ошибке записи
+     */
+    public static void save(StreamingMazeGenerator generator, String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = newBuffer(generator.getRowsQuantity(), generator.getColumnQuantity());
+
+            long[] row = new long[generator.getWordsPerRow()];
+            while (generator.hasNextRow()) {
+                generator.nextRow(row);
+                for (long word : row) {
+                    if (!buffer.hasRemaining()) flush(channel, buffer);
+                    buffer.putLong(word);
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Открывает файл лабиринта, отображая его в память
+     * @param fileName имя файла
+     * @param writable true - изменения клеток записываются в файл; false - файл открывается только для чтения
+     * @return матрица лабиринта поверх отображённого файла
+     * @throws IOException при ошибке чтения или неверном формате файла
+     */
+    public static BitMatrix open(String fileName, boolean writable) throws IOException {
+        StandardOpenOption[] options = writable
+                ? new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[]{StandardOpenOption.READ};
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), options)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) != -1) ;
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != SIGNATURE)
+                throw new IOException("Not a maze file: " + fileName);
+            int version = header.getInt();
+            if (version != VERSION) throw new IOException("Unsupported maze file version: " + version);
+            int rowsQuantity = header.getInt();
+            int columnQuantity = header.getInt();
+            if (rowsQuantity < 1 || columnQuantity < 1)
+                throw new IOException("Corrupted maze file header: " + fileName);
+
+            long rowSize = 8L * ((columnQuantity + 63) >>> 6);
+            if (channel.size() < HEADER_SIZE + rowSize * rowsQuantity)
+                throw new IOException("Maze file is truncated: " + fileName);
+
+            // Количество рядов в куске - наибольшая степень двойки, при которой кусок не больше MAX_CHUNK_SIZE
+            int rowsPerChunkShift = 0;
+            while (rowsPerChunkShift < 30 && rowSize << (rowsPerChunkShift + 1) <= MAX_CHUNK_SIZE) rowsPerChunkShift++;
+
+            long rowsPerChunk = 1L << rowsPerChunkShift;
+            LongBuffer[] chunks = new LongBuffer[(int) ((rowsQuantity + rowsPerChunk - 1) / rowsPerChunk)];
+            for (int i = 0; i < chunks.length; i++) {
+                long firstRow = i * rowsPerChunk;
+                long rows = Math.min(rowsPerChunk, rowsQuantity - firstRow);
+                chunks[i] = channel.map(mode, HEADER_SIZE + firstRow * rowSize, rows * rowSize)
+                        .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            }
+
+            return new MappedBitMatrix(rowsQuantity, columnQuantity, chunks, rowsPerChunkShift);
+        }
+    }
+
+    /**
+     * Создаёт буфер записи и помещает в него заголовок
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @return буфер с заголовком
+     */
+    private static ByteBuffer newBuffer(int rowsQuantity, int columnQuantity) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(SIGNATURE).putInt(VERSION).putInt(rowsQuantity).putInt(columnQuantity);
+        return buffer;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -1,4 +1,6 @@
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * Класс ответственный за генерацию лабиринтов. Для этого использует граф узлы которого расположены в чётных рядах
@@ -6,19 +8,49 @@ import java.util.*;
  * Как условие рассматривается, что из любой части лабиринта можно попасть в любую часть и, что он не содержит
  * изолированных коридоров в которые невозможно попасть или выбраться. Для этого получается остовное дерево графа,
  * ветви которого образуют коридоры.
+ * Класс не имеет изменяемого состояния, а каждый вызов работает со своими массивами и своим генератором
+ * случайных чисел, поэтому лабиринты можно генерировать одновременно из разных потоков.
  */
 public class MazeGenerator {
 
+    // Направление связи, хранящееся в младшем бите её кода
+    private static final int RIGHT_EDGE = 0;
+    private static final int DOWN_EDGE = 1;
+
+    // Отметки "прогрызенных" связей узла в параллельной генерации
+    private static final byte RIGHT_CARVED = 1;
+    private static final byte DOWN_CARVED = 2;
+
+    // Размер стороны квадратного участка сетки узлов, который обрабатывается одной задачей
+    private static final int TILE_SIZE = 256;
+
+    // Слово, в котором установлены биты всех нечётных колонок
+    private static final long ODD_COLUMNS = 0xAAAAAAAAAAAAAAAAL;
+
     /**
      * Главный метод класса, который собирает логику воедино. Принимает на вход количество рядов и колонок в требуемом
-     * лабиринте и возвращает двумерный массив из 1 (означает стену) и 0 (означает проход).
+     * лабиринте и возвращает битовую матрицу, в которой установленный бит означает стену, а сброшенный - проход.
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @return матрица лабиринта
+     */
+    public static BitMatrix createMaze(int rowsQuantity, int columnQuantity) {
+        return createMaze(rowsQuantity, columnQuantity, new SplittableRandom());
+    }
+
+    /**
+     * Генерирует лабиринт, используя переданный источник случайных чисел: при одинаковом зерне источника
+     * получается один и тот же лабиринт
      * @param rowsQuantity количество рядов
      * @param columnQuantity количество колонок
+     * @param random источник случайных чисел
      * @return матрица лабиринта
      */
-    public static int[][] createMaze(int rowsQuantity, int columnQuantity) {
+    public static BitMatrix createMaze(int rowsQuantity, int columnQuantity, SplittableRandom random) {
+        SolverProbe probe = SolverProbe.start("createMaze");
+
         // Создаётся матрица лабиринта с заданными размерами и заполняется везде, исключая места рассположения узлов
-        int[][] mazeMatrix = new int[rowsQuantity][columnQuantity];
+        BitMatrix mazeMatrix = new BitMatrix(rowsQuantity, columnQuantity);
         fillMaze(mazeMatrix);
 
         // Рассчитывается количество узлов в ряду и колонке (формула зависит от чётности) и общее их количество в матрице
@@ -26,135 +58,275 @@ public class MazeGenerator {
         int vertexesInColumn = (columnQuantity & 1) == 0 ? columnQuantity / 2 : columnQuantity / 2 + 1;
         int vertexesQuantity = vertexesInColumn * vertexesInRow;
 
-        // Создается список для хранения связей между узлами
-        ArrayList<WeightedEdge> edges = new ArrayList<>();
-
-        // Создаются связи между узлами
-        connectVectors(vertexesQuantity, vertexesInRow, vertexesInColumn, edges);
-
-        // Список в котором содержаться связи сортируются по весу по возрастанию
-        Collections.sort(edges, Comparator.comparingInt(WeightedEdge::getWeight));
+        // Создаются связи между узлами в случайном порядке
+        int[] edges = connectVectors(vertexesQuantity, vertexesInRow, vertexesInColumn, random);
+        if (probe != null) probe.endPhase("edges");
 
         // Получается набор связей входящих в остовное дерево
-        HashSet<WeightedEdge> spanningTree = getSpanningTree(vertexesQuantity, edges);
+        int[] spanningTree = getSpanningTree(vertexesQuantity, vertexesInColumn, edges);
+        if (probe != null) probe.endPhase("spanningTree");
 
         // На месте каждой связи "прогрызается" стена
-        for (WeightedEdge edge : spanningTree) {
-
-            Coordinates firstVertexCoordinates = edge.getFirstVertexCoordinates();
-            Coordinates secondVertexCoordinates = edge.getSecondVertexCoordinates();
+        for (int edge : spanningTree) {
+            int vertexId = edge >>> 1;
+            int jointsRow = (vertexId / vertexesInColumn) * 2;
+            int jointsColumn = (vertexId % vertexesInColumn) * 2;
 
-            int jointsRow = (firstVertexCoordinates.getY() + secondVertexCoordinates.getY()) / 2;
-            int jointsColumn = (firstVertexCoordinates.getX() + secondVertexCoordinates.getX()) / 2;
+            if ((edge & 1) == RIGHT_EDGE) jointsColumn++;
+            else jointsRow++;
 
-            mazeMatrix[jointsRow][jointsColumn] = Maze.PASS;
+            mazeMatrix.clear(jointsRow, jointsColumn);
         }
 
         // Так как в случае чётного количества рядов и колонок образуются двойные стены может потребоваться
         // прогрызать дополнительный коридор
         additionalCorridor(mazeMatrix, rowsQuantity, columnQuantity);
+        if (probe != null) probe.endPhase("carving");
 
         return mazeMatrix;
     }
 
     /**
-     * Так как в случае чётного количества рядов и колонок образуются двойные стены может потребоваться
-     * прогрызать дополнительный коридор
-     * @param mazeMatrix матрица лабиринта
+     * Параллельная генерация лабиринта в общем пуле ForkJoinPool
      * @param rowsQuantity количество рядов
      * @param columnQuantity количество колонок
+     * @return матрица лабиринта
      */
-    private static void additionalCorridor(int[][] mazeMatrix, int rowsQuantity, int columnQuantity) {
-        int lastColumn = (columnQuantity & 1) == 0 ? columnQuantity - 2 : columnQuantity - 1;
-        if ((rowsQuantity & 1) == 0) mazeMatrix[rowsQuantity - 1][lastColumn] = 0;
-        if ((columnQuantity & 1) == 0) mazeMatrix[rowsQuantity - 1][lastColumn + 1] = 0;
+    public static BitMatrix createMazeInParallel(int rowsQuantity, int columnQuantity) {
+        return createMazeInParallel(rowsQuantity, columnQuantity, new SplittableRandom(), ForkJoinPool.commonPool());
     }
 
     /**
-     * На основе ид узла рассчитывает его координаты <номер ряда, номер колонки> внутри матрицы лабиринта
-     * @param id ид узла
-     * @param vertexesInColumn количество рядов в колонке
-     * @return координаты узла
+     * Параллельная генерация лабиринта в общем пуле ForkJoinPool, одинаковая для одинаковой последовательности
+     * случайных чисел независимо от количества потоков
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param random источник случайных чисел
+     * @return матрица лабиринта
      */
-    private static Coordinates getCoordinateByVectorId(int id, int vertexesInColumn) {
-        int rowNum = (id / vertexesInColumn) * 2;
-        int columnNum = (id % vertexesInColumn) * 2;
-        return new Coordinates(rowNum, columnNum);
+    public static BitMatrix createMazeInParallel(int rowsQuantity, int columnQuantity, SplittableRandom random) {
+        return createMazeInParallel(rowsQuantity, columnQuantity, random, ForkJoinPool.commonPool());
     }
 
     /**
-     * Объединяет все узлы из матрицы графа в условную сетку, соединяя каждый узел с его правым и нижним соседов
-     * (если такие есть), и задает связям случайное значение, занося его в список связей
+     * Параллельная генерация лабиринта в заданном пуле
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param pool пул, в котором выполняются параллельные этапы
+     * @return матрица лабиринта
+     */
+    public static BitMatrix createMazeInParallel(int rowsQuantity, int columnQuantity, ForkJoinPool pool) {
+        return createMazeInParallel(rowsQuantity, columnQuantity, new SplittableRandom(), pool);
+    }
+
+    /**
+     * Параллельная генерация лабиринта. Сетка узлов делится на квадратные участки, и внутри каждого участка
+     * остовный лес строится алгоритмом Краскала отдельной задачей пула. Связи участка затрагивают только его узлы,
+     * поэтому задачи пишут в общие массивы (DisjointSet и отметки связей) по непересекающимся индексам. Затем
+     * связи на границах участков перемешиваются и одним проходом Краскала по общему DisjointSet соединяют участки
+     * в одно дерево, так что результат остаётся идеальным лабиринтом. В конце ряды матрицы заполняются параллельно:
+     * каждый ряд начинается с нового слова, поэтому задачи не пишут в одни и те же слова.
+     * Каждый участок получает свою последовательность случайных чисел (SplittableRandom.split) до запуска задач,
+     * поэтому результат зависит только от random, а не от порядка выполнения задач
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param random источник случайных чисел
+     * @param pool пул, в котором выполняются задачи
+     * @return матрица лабиринта
+     */
+    public static BitMatrix createMazeInParallel(int rowsQuantity, int columnQuantity, SplittableRandom random,
+                                                 ForkJoinPool pool) {
+        SolverProbe probe = SolverProbe.start("createMazeInParallel");
+        BitMatrix mazeMatrix = new BitMatrix(rowsQuantity, columnQuantity);
+
+        int vertexesInRow = (rowsQuantity & 1) == 0 ? rowsQuantity / 2 : rowsQuantity / 2 + 1;
+        int vertexesInColumn = (columnQuantity & 1) == 0 ? columnQuantity / 2 : columnQuantity / 2 + 1;
+        int vertexesQuantity = vertexesInColumn * vertexesInRow;
+
+        int tilesInRow = (vertexesInRow + TILE_SIZE - 1) / TILE_SIZE;
+        int tilesInColumn = (vertexesInColumn + TILE_SIZE - 1) / TILE_SIZE;
+
+        DisjointSet vertexSets = new DisjointSet(vertexesQuantity);
+        byte[] carved = new byte[vertexesQuantity];
+
+        // Последовательности случайных чисел участков раздаются заранее, чтобы не делить генератор между потоками
+        SplittableRandom[] tileRandoms = new SplittableRandom[tilesInRow * tilesInColumn];
+        for (int i = 0; i < tileRandoms.length; i++) tileRandoms[i] = random.split();
+
+        // Остовный лес внутри каждого участка
+        pool.submit(() -> IntStream.range(0, tileRandoms.length).parallel().forEach(tile -> {
+            int firstRow = (tile / tilesInColumn) * TILE_SIZE;
+            int firstColumn = (tile % tilesInColumn) * TILE_SIZE;
+            int lastRow = Math.min(firstRow + TILE_SIZE, vertexesInRow) - 1;
+            int lastColumn = Math.min(firstColumn + TILE_SIZE, vertexesInColumn) - 1;
+
+            int[] edges = new int[2 * (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1)];
+            int count = 0;
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    int id = row * vertexesInColumn + column;
+                    if (column < lastColumn) edges[count++] = (id << 1) | RIGHT_EDGE;
+                    if (row < lastRow) edges[count++] = (id << 1) | DOWN_EDGE;
+                }
+            }
+
+            shuffle(edges, count, tileRandoms[tile]);
+            carveSpanningForest(vertexSets, vertexesInColumn, edges, count, carved);
+        })).join();
+        if (probe != null) probe.endPhase("tiles");
+
+        // Соединение участков связями, лежащими на их границах
+        int[] boundaryEdges = new int[(tilesInColumn - 1) * vertexesInRow + (tilesInRow - 1) * vertexesInColumn];
+        int count = 0;
+        for (int column = TILE_SIZE - 1; column < vertexesInColumn - 1; column += TILE_SIZE)
+            for (int row = 0; row < vertexesInRow; row++)
+                boundaryEdges[count++] = ((row * vertexesInColumn + column) << 1) | RIGHT_EDGE;
+        for (int row = TILE_SIZE - 1; row < vertexesInRow - 1; row += TILE_SIZE)
+            for (int column = 0; column < vertexesInColumn; column++)
+                boundaryEdges[count++] = ((row * vertexesInColumn + column) << 1) | DOWN_EDGE;
+
+        shuffle(boundaryEdges, count, random);
+        carveSpanningForest(vertexSets, vertexesInColumn, boundaryEdges, count, carved);
+        if (probe != null) probe.endPhase("boundaries");
+
+        // Заполнение рядов матрицы стенами и "прогрызание" отмеченных связей
+        pool.submit(() -> IntStream.range(0, rowsQuantity).parallel().forEach(row -> {
+            fillRow(mazeMatrix, row);
+            int vertexRow = row / 2;
+            if ((row & 1) == 0) {
+                for (int column = 0; column < vertexesInColumn; column++)
+                    if ((carved[vertexRow * vertexesInColumn + column] & RIGHT_CARVED) != 0)
+                        mazeMatrix.clear(row, column * 2 + 1);
+            } else {
+                for (int column = 0; column < vertexesInColumn; column++)
+                    if ((carved[vertexRow * vertexesInColumn + column] & DOWN_CARVED) != 0)
+                        mazeMatrix.clear(row, column * 2);
+            }
+        })).join();
+
+        additionalCorridor(mazeMatrix, rowsQuantity, columnQuantity);
+        if (probe != null) probe.endPhase("carving");
+
+        return mazeMatrix;
+    }
+
+    /**
+     * Так как в случае чётного количества рядов и колонок образуются двойные стены может потребоваться
+     * прогрызать дополнительный коридор
+     * @param mazeMatrix матрица лабиринта
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     */
+    private static void additionalCorridor(BitMatrix mazeMatrix, int rowsQuantity, int columnQuantity) {
+        int lastColumn = (columnQuantity & 1) == 0 ? columnQuantity - 2 : columnQuantity - 1;
+        if ((rowsQuantity & 1) == 0) mazeMatrix.clear(rowsQuantity - 1, lastColumn);
+        if ((columnQuantity & 1) == 0) mazeMatrix.clear(rowsQuantity - 1, lastColumn + 1);
+    }
+
+    /**
+     * Объединяет все узлы из матрицы графа в условную сетку, соединяя каждый узел с его правым и нижним соседом
+     * (если такие есть), и перемешивает полученные связи. Связь хранится одним числом: ид узла, сдвинутый на один бит,
+     * и младший бит направления (RIGHT_EDGE или DOWN_EDGE). Случайная перестановка связей равносильна присвоению им
+     * случайных весов и сортировке по ним, но не требует ни массива весов, ни сортировки
+     * @param vertexesQuantity количество узлов в матрице лабиринта
      * @param vertexesInRow количество узлов в ряду
      * @param vertexesInColumn количество узлов в колонке
-     * @param edges список связей для заполнения
+     * @param random источник случайных чисел
+     * @return перемешанный массив связей
      */
-    private static void connectVectors(int vertexesQuantity, int vertexesInRow, int vertexesInColumn, ArrayList<WeightedEdge> edges) {
-
-        Random random = new Random();
+    private static int[] connectVectors(int vertexesQuantity, int vertexesInRow, int vertexesInColumn, SplittableRandom random) {
+        int edgesQuantity = (vertexesInColumn - 1) * vertexesInRow + (vertexesInRow - 1) * vertexesInColumn;
+        int[] edges = new int[edgesQuantity];
+        int count = 0;
 
         for (int i = 0; i < vertexesQuantity; i++) {
             //Создает связь с соседом справа, если такой есть
-            if ((i + 1) % vertexesInColumn != 0) {
-                Coordinates firstVertexCoordinates = getCoordinateByVectorId(i, vertexesInColumn);
-                Coordinates secondVertexCoordinates = getCoordinateByVectorId(i + 1, vertexesInColumn);
-                int randomValue = random.nextInt();
-                edges.add(new WeightedEdge(i, i + 1, randomValue, firstVertexCoordinates, secondVertexCoordinates));
-            }
+            if ((i + 1) % vertexesInColumn != 0) edges[count++] = (i << 1) | RIGHT_EDGE;
             //Создает связь с соседом снизу, если такой есть
-            if ((i / vertexesInColumn) + 1 != vertexesInRow) {
-                Coordinates firstVertexCoordinates = getCoordinateByVectorId(i, vertexesInColumn);
-                Coordinates secondVertexCoordinates = getCoordinateByVectorId(i + vertexesInColumn, vertexesInColumn);
-                int randomValue = random.nextInt();
-                edges.add(new WeightedEdge(i, i + vertexesInColumn, randomValue, firstVertexCoordinates, secondVertexCoordinates));
-            }
+            if ((i / vertexesInColumn) + 1 != vertexesInRow) edges[count++] = (i << 1) | DOWN_EDGE;
         }
+
+        shuffle(edges, edgesQuantity, random);
+
+        return edges;
     }
 
+    /**
+     * Перемешивание Фишера-Йетса первых count связей массива
+     * @param edges массив связей
+     * @param count количество связей для перемешивания
+     * @param random источник случайных чисел
+     */
+    private static void shuffle(int[] edges, int count, SplittableRandom random) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int edge = edges[i];
+            edges[i] = edges[j];
+            edges[j] = edge;
+        }
+    }
 
     /**
-     * Получает остовное дерево на основе отсортированного списка имеющихся связей. Создается список ид,
-     * которые уже присутствуют в дереве и в него заносится 0 (вход). После в каждой итерации цикла в списке ищется
-     * самая лёгкая связь один из узлов которой еще не входит в дерево, после нахождения ид узла отмечается как
-     * использованный, а связь добавляется в дерево и удаляется из списка
+     * Получает остовное дерево алгоритмом Краскала. Связи просматриваются один раз в порядке перемешивания, и связь
+     * попадает в дерево, если её узлы ещё находятся в разных множествах. Принадлежность узлов множествам хранится
+     * в DisjointSet, поэтому построение занимает почти линейное время
      * @param vertexesQuantity количество узлов в матрице лабиринта
-     * @param edges список всех связей
-     * @return набор связей из остовного дерева
+     * @param vertexesInColumn количество узлов в колонке
+     * @param edges перемешанный массив всех связей
+     * @return массив связей из остовного дерева
      */
-    private static HashSet<WeightedEdge> getSpanningTree(int vertexesQuantity, ArrayList<WeightedEdge> edges) {
-        HashSet<Integer> usedVertexesId = new HashSet<>();
-        usedVertexesId.add(0);
-        HashSet<WeightedEdge> spanningTree = new HashSet<>();
-
-        while (spanningTree.size() < vertexesQuantity - 1) {
-            for (int i = 0; i < edges.size(); i++) {
-                WeightedEdge WeightedEdge = edges.get(i);
-                int firstVertex = WeightedEdge.getFirstVertexId();
-                int secondVertex = WeightedEdge.getSecondVertexId();
-
-                if ((usedVertexesId.contains(firstVertex) && !usedVertexesId.contains(secondVertex)) ||
-                        (!usedVertexesId.contains(firstVertex) && usedVertexesId.contains(secondVertex))) {
-                    usedVertexesId.add(firstVertex);
-                    usedVertexesId.add(secondVertex);
-                    spanningTree.add(WeightedEdge);
-                    edges.remove(i);
-                    break;
-                }
-            }
+    private static int[] getSpanningTree(int vertexesQuantity, int vertexesInColumn, int[] edges) {
+        DisjointSet vertexSets = new DisjointSet(vertexesQuantity);
+        int[] spanningTree = new int[Math.max(vertexesQuantity - 1, 0)];
+        int count = 0;
+
+        for (int i = 0; i < edges.length && count < spanningTree.length; i++) {
+            int edge = edges[i];
+            int firstVertex = edge >>> 1;
+            int secondVertex = (edge & 1) == RIGHT_EDGE ? firstVertex + 1 : firstVertex + vertexesInColumn;
+            if (vertexSets.union(firstVertex, secondVertex)) spanningTree[count++] = edge;
         }
 
         return spanningTree;
     }
 
     /**
-     * Заливает помещение лабиринта бетоном(сплошные стены), оставляя пустыми только места нахождения узлов
+     * Вариант алгоритма Краскала для параллельной генерации: связь, соединившая два разных множества, отмечается
+     * в массиве отметок у своего первого узла (верхнего или левого)
+     * @param vertexSets множества узлов
+     * @param vertexesInColumn количество узлов в колонке
+     * @param edges перемешанный массив связей
+     * @param count количество связей в массиве
+     * @param carved отметки связей узлов (RIGHT_CARVED, DOWN_CARVED)
+     */
+    private static void carveSpanningForest(DisjointSet vertexSets, int vertexesInColumn, int[] edges, int count, byte[] carved) {
+        for (int i = 0; i < count; i++) {
+            int edge = edges[i];
+            int firstVertex = edge >>> 1;
+            boolean isRight = (edge & 1) == RIGHT_EDGE;
+            int secondVertex = isRight ? firstVertex + 1 : firstVertex + vertexesInColumn;
+            if (vertexSets.union(firstVertex, secondVertex)) carved[firstVertex] |= isRight ? RIGHT_CARVED : DOWN_CARVED;
+        }
+    }
+
+    /**
+     * Заливает помещение лабиринта бетоном(сплошные стены), оставляя пустыми только места нахождения узлов.
+     * Заполнение идёт словами целиком: нечётные ряды - сплошная стена, в чётных стенами являются нечётные колонки
      * @param mazeMatrix матрица лабиринта
      */
-    private static void fillMaze(int[][] mazeMatrix) {
-        for (int i = 0; i < mazeMatrix.length; i++) {
-            for (int j = 0; j < mazeMatrix[0].length; j++) {
-                if ((i & 1) != 0 || (j & 1) != 0) mazeMatrix[i][j] = Maze.WALL;
-            }
+    private static void fillMaze(BitMatrix mazeMatrix) {
+        for (int i = 0; i < mazeMatrix.getRowsQuantity(); i++) fillRow(mazeMatrix, i);
+    }
+
+    /**
+     * Заливает один ряд лабиринта
+     * @param mazeMatrix матрица лабиринта
+     * @param row номер ряда
+     */
+    private static void fillRow(BitMatrix mazeMatrix, int row) {
+        long pattern = (row & 1) != 0 ? -1L : ODD_COLUMNS;
+        for (int w = 0; w < mazeMatrix.getWordsPerRow(); w++) {
+            mazeMatrix.setWord(row, w, pattern & mazeMatrix.getWordMask(w));
         }
     }
 }
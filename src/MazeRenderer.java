@@ -0,0 +1,187 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Вывод лабиринта крупными блоками. Ряд целиком кодируется в переиспользуемый буфер байтов (UTF-8 представления
+ * символов подготовлены заранее), а буфер пишется в поток, только когда заполнится. Путь накладывается на
+ * отдельную битовую матрицу, сам лабиринт при выводе не изменяется
+ */
+public class MazeRenderer {
+
+    private final static byte[] WALL = "\u2588\u2588".getBytes(StandardCharsets.UTF_8);
+    private final static byte[] PASS = "  ".getBytes(StandardCharsets.UTF_8);
+    private final static byte[] PATH = "//".getBytes(StandardCharsets.UTF_8);
+    private final static byte[] INCORRECT_PATH = "Incorect path!\n".getBytes(StandardCharsets.UTF_8);
+
+    private final static int BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private int position;
+
+    private MazeRenderer(OutputStream out, int columnQuantity) {
+        this.out = out;
+        // В буфер должен помещаться хотя бы один ряд вместе с рамкой
+        this.buffer = new byte[Math.max(BUFFER_SIZE, (columnQuantity + 2) * WALL.length + 1)];
+    }
+
+    /**
+     * Выводит лабиринт, обрамляя его стенами вокруг (вход слева в первом ряду, выход справа в последнем)
+     * @param maze лабиринт
+     * @param out поток для вывода
+     * @throws IOException при ошибке записи
+     */
+    public static void render(Maze maze, OutputStream out) throws IOException {
+        new MazeRenderer(out, maze.getColumnQuantity()).renderMaze(maze.getCells(), maze.getCosts(), null, PASS);
+    }
+
+    /**
+     * Выводит лабиринт с отображением переданного пути. Если путь проходит через стену или за пределы лабиринта,
+     * то вместо лабиринта выводится сообщение об ошибке
+     * @param maze лабиринт
+     * @param path путь
+     * @param out поток для вывода
+     * @throws IOException при ошибке записи
+     */
+    public static void renderWithPath(Maze maze, Path path, OutputStream out) throws IOException {
+        BitMatrix mazeMatrix = maze.getCells();
+        BitMatrix pathCells = new BitMatrix(mazeMatrix.getRowsQuantity(), mazeMatrix.getColumnQuantity());
+
+        int y = path.getStartY();
+        int x = path.getStartX();
+        for (int i = 0; i < path.getLength(); i++) {
+            if (i > 0) {
+                int direction = path.getDirection(i - 1);
+                y += PathFinder.DIRECTION_Y[direction];
+                x += PathFinder.DIRECTION_X[direction];
+            }
+
+            if (y < 0 || y >= mazeMatrix.getRowsQuantity() || x < 0 || x >= mazeMatrix.getColumnQuantity()
+                    || mazeMatrix.get(y, x)) {
+                out.write(INCORRECT_PATH);
+                out.flush();
+                return;
+            }
+            pathCells.set(y, x);
+        }
+
+        new MazeRenderer(out, maze.getColumnQuantity()).renderMaze(mazeMatrix, maze.getCosts(), pathCells, PATH);
+    }
+
+    /**
+     * Выводит лабиринт в канал
+     * @param maze лабиринт
+     * @param channel канал для вывода
+     * @throws IOException при ошибке записи
+     */
+    public static void render(Maze maze, WritableByteChannel channel) throws IOException {
+        render(maze, Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Выводит лабиринт с путём в канал
+     * @param maze лабиринт
+     * @param path путь
+     * @param channel канал для вывода
+     * @throws IOException при ошибке записи
+     */
+    public static void renderWithPath(Maze maze, Path path, WritableByteChannel channel) throws IOException {
+        renderWithPath(maze, path, Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Выводит матрицу лабиринта из 1, 0 и стоимостей клеток, разделённых табуляцией
+     * @param maze лабиринт
+     * @param out поток для вывода
+     * @throws IOException при ошибке записи
+     */
+    public static void renderMatrix(Maze maze, OutputStream out) throws IOException {
+        BitMatrix mazeMatrix = maze.getCells();
+        byte[] costs = maze.getCosts();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+        MazeRenderer renderer = new MazeRenderer(out, columnQuantity);
+
+        for (int i = 0; i < mazeMatrix.getRowsQuantity(); i++) {
+            renderer.reserve(columnQuantity * 2 + 1);
+            for (int j = 0; j < columnQuantity; j++) {
+                int value = mazeMatrix.get(i, j) ? Maze.WALL : costs == null ? Maze.PASS : costs[i * columnQuantity + j];
+                renderer.buffer[renderer.position++] = (byte) ('0' + value);
+                renderer.buffer[renderer.position++] = '\t';
+            }
+            renderer.buffer[renderer.position++] = '\n';
+        }
+        renderer.flush();
+    }
+
+    /**
+     * @param mazeMatrix матрица лабиринта
+     * @param costs стоимости клеток или null (клетка со стоимостью отображается пробелом и цифрой)
+     * @param pathCells клетки пути или null
+     * @param opening чем отображаются вход и выход в рамке
+     */
+    private void renderMaze(BitMatrix mazeMatrix, byte[] costs, BitMatrix pathCells, byte[] opening) throws IOException {
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+
+        renderBorder(columnQuantity);
+
+        for (int i = 0; i < rowsQuantity; i++) {
+            reserve((columnQuantity + 2) * WALL.length + 1);
+            put(i == 0 ? opening : WALL);
+            int rowOffset = i * columnQuantity;
+
+            for (int w = 0; w < mazeMatrix.getWordsPerRow(); w++) {
+                long walls = mazeMatrix.getWord(i, w);
+                long path = pathCells == null ? 0 : pathCells.getWord(i, w);
+                int end = Math.min(64, columnQuantity - (w << 6));
+                for (int bit = 0; bit < end; bit++) {
+                    if ((path >>> bit & 1) != 0) put(PATH);
+                    else if ((walls >>> bit & 1) != 0) put(WALL);
+                    else if (costs != null && costs[rowOffset + (w << 6) + bit] != 0) putCost(costs[rowOffset + (w << 6) + bit]);
+                    else put(PASS);
+                }
+            }
+
+            put(i == rowsQuantity - 1 ? opening : WALL);
+            buffer[position++] = '\n';
+        }
+
+        renderBorder(columnQuantity);
+        flush();
+    }
+
+    private void renderBorder(int columnQuantity) throws IOException {
+        reserve((columnQuantity + 2) * WALL.length + 1);
+        for (int i = 0; i < columnQuantity + 2; i++) put(WALL);
+        buffer[position++] = '\n';
+    }
+
+    private void put(byte[] symbol) {
+        for (byte b : symbol) buffer[position++] = b;
+    }
+
+    private void putCost(byte cost) {
+        buffer[position++] = ' ';
+        buffer[position++] = (byte) ('0' + cost);
+    }
+
+    /**
+     * Сбрасывает буфер в поток, если в нём не осталось места под следующий ряд
+     * @param bytes сколько байт будет записано
+     */
+    private void reserve(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+}
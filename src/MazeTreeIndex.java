@@ -0,0 +1,156 @@
+import java.util.Arrays;
+
+/**
+ * Индекс для запросов пути между любыми двумя клетками лабиринта-дерева (такие строит MazeGenerator: путь
+ * между любыми двумя клетками в нём единственный). Дерево подвешивается за первую проходимую клетку, и для каждой
+ * клетки запоминаются родитель, глубина и указатель-прыжок на одного из предков. Прыжки устроены так
+ * (skew-binary, как у Майерса), что до любого предка можно дойти за O(log n) шагов, а памяти нужно всего одно
+ * дополнительное число на клетку, в отличие от таблицы двоичных подъёмов (log n чисел на клетку).
+ * Длина пути считается через наименьшего общего предка за O(log n), сам путь строится за O(длина пути).
+ *
+ * Индекс соответствует лабиринту на момент построения: после изменения лабиринта его нужно построить заново.
+ * Построенный индекс только читается, поэтому запросы можно выполнять из нескольких потоков
+ */
+public class MazeTreeIndex {
+
+    private final int rowsQuantity;
+    private final int columnQuantity;
+
+    // Для клетки с номером y * columnQuantity + x: родитель, глубина и прыжок. Для стен родитель равен -1
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] jump;
+
+    /**
+     * Строит индекс обходом в ширину
+     * @param maze лабиринт
+     * @throws IllegalArgumentException если проходимые клетки не образуют дерево (есть цикл или изолированная
+     * часть), либо в лабиринте нет проходимых клеток
+     */
+    public MazeTreeIndex(Maze maze) {
+        BitMatrix cells = maze.getCells();
+        rowsQuantity = cells.getRowsQuantity();
+        columnQuantity = cells.getColumnQuantity();
+        int cellsQuantity = Math.multiplyExact(rowsQuantity, columnQuantity);
+
+        parent = new int[cellsQuantity];
+        depth = new int[cellsQuantity];
+        jump = new int[cellsQuantity];
+        Arrays.fill(parent, -1);
+
+        int root = -1;
+        int passQuantity = 0;
+        for (int y = 0; y < rowsQuantity; y++)
+            for (int x = 0; x < columnQuantity; x++)
+                if (!cells.get(y, x)) {
+                    if (root < 0) root = y * columnQuantity + x;
+                    passQuantity++;
+                }
+        if (root < 0) throw new IllegalArgumentException("Maze has no passable cells");
+
+        // Массив order одновременно служит очередью обхода; родитель всегда раньше потомка
+        int[] order = new int[passQuantity];
+        int head = 0;
+        int tail = 0;
+        order[tail++] = root;
+        parent[root] = root;
+        jump[root] = root;
+        while (head < tail) {
+            int vertex = order[head++];
+            int y = vertex / columnQuantity;
+            int x = vertex - y * columnQuantity;
+            for (int direction = 0; direction < 4; direction++) {
+                int neighborY = y + PathFinder.DIRECTION_Y[direction];
+                int neighborX = x + PathFinder.DIRECTION_X[direction];
+                if (neighborY < 0 || neighborY >= rowsQuantity || neighborX < 0 || neighborX >= columnQuantity
+                        || cells.get(neighborY, neighborX)) continue;
+                int neighbor = neighborY * columnQuantity + neighborX;
+                if (neighbor == parent[vertex]) continue;
+                if (parent[neighbor] >= 0)
+                    throw new IllegalArgumentException("Maze is not a tree: cycle through (" + neighborY + "; " + neighborX + ")");
+
+                parent[neighbor] = vertex;
+                depth[neighbor] = depth[vertex] + 1;
+                int vertexJump = jump[vertex];
+                jump[neighbor] = depth[vertex] - depth[vertexJump] == depth[vertexJump] - depth[jump[vertexJump]]
+                        ? jump[vertexJump] : vertex;
+                order[tail++] = neighbor;
+            }
+        }
+        if (tail != passQuantity) throw new IllegalArgumentException("Maze is not a tree: it is not connected");
+    }
+
+    /**
+     * @return количество клеток в пути между двумя клетками (включая обе), как Path.getLength()
+     * @throws IllegalArgumentException если одна из клеток стена или вне лабиринта
+     */
+    public int getPathLength(int startY, int startX, int finishY, int finishX) {
+        int start = getVertex(startY, startX);
+        int finish = getVertex(finishY, finishX);
+        return depth[start] + depth[finish] - 2 * depth[getLowestCommonAncestor(start, finish)] + 1;
+    }
+
+    /**
+     * @return путь от первой клетки до второй
+     * @throws IllegalArgumentException если одна из клеток стена или вне лабиринта
+     */
+    public Path getPath(int startY, int startX, int finishY, int finishX) {
+        int start = getVertex(startY, startX);
+        int finish = getVertex(finishY, finishX);
+        int ancestor = getLowestCommonAncestor(start, finish);
+
+        PathBuilder builder = new PathBuilder(startY, startX);
+        for (int vertex = start; vertex != ancestor; ) {
+            vertex = parent[vertex];
+            builder.moveTo(vertex / columnQuantity, vertex % columnQuantity);
+        }
+
+        // Вторая половина пути идёт от общего предка вниз, поэтому клетки от финиша вверх сначала запоминаются
+        int[] descent = new int[depth[finish] - depth[ancestor]];
+        for (int vertex = finish, i = 0; vertex != ancestor; vertex = parent[vertex]) descent[i++] = vertex;
+        for (int i = descent.length - 1; i >= 0; i--)
+            builder.moveTo(descent[i] / columnQuantity, descent[i] % columnQuantity);
+        return builder.build();
+    }
+
+    /**
+     * @return расстояние от корня (первой проходимой клетки в порядке рядов) до клетки
+     */
+    public int getDepth(int y, int x) {
+        return depth[getVertex(y, x)];
+    }
+
+    private int getVertex(int y, int x) {
+        if (y < 0 || y >= rowsQuantity || x < 0 || x >= columnQuantity)
+            throw new IllegalArgumentException("Cell is outside of the maze: (" + y + "; " + x + ")");
+        int vertex = y * columnQuantity + x;
+        if (parent[vertex] < 0) throw new IllegalArgumentException("Cell is a wall: (" + y + "; " + x + ")");
+        return vertex;
+    }
+
+    /**
+     * Поднимается от клетки к её предку на заданной глубине, по прыжку, если он не перескакивает эту глубину
+     */
+    private int getAncestor(int vertex, int targetDepth) {
+        while (depth[vertex] > targetDepth)
+            vertex = depth[jump[vertex]] >= targetDepth ? jump[vertex] : parent[vertex];
+        return vertex;
+    }
+
+    private int getLowestCommonAncestor(int first, int second) {
+        if (depth[first] > depth[second]) first = getAncestor(first, depth[second]);
+        else second = getAncestor(second, depth[first]);
+
+        // Прыжки зависят только от глубины, поэтому у клеток одной глубины они ведут на одну глубину
+        while (first != second) {
+            if (jump[first] != jump[second]) {
+                first = jump[first];
+                second = jump[second];
+            } else {
+                first = parent[first];
+                second = parent[second];
+            }
+        }
+        return first;
+    }
+}
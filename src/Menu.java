@@ -1,9 +1,27 @@
-
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Scanner;
 
 public class Menu {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        // Пакетный режим: --batch манифест [количество потоков], манифест "-" читается со стандартного ввода
+        if (args.length > 0 && args[0].equals("--batch")) {
+            int threadsQuantity = args.length > 2 ? parseThreadsQuantity(args[2])
+                    : Runtime.getRuntime().availableProcessors();
+            if (args.length < 2 || args.length > 3 || threadsQuantity < 1) {
+                System.err.println("Usage: Menu --batch MANIFEST [THREADS] (MANIFEST \"-\" - standard input, THREADS > 0)");
+                System.exit(2);
+            }
+            runBatch(args[1], threadsQuantity);
+            return;
+        }
 
         Maze maze;
         Scanner scanner = new Scanner(System.in);
@@ -11,25 +29,36 @@ public class Menu {
         System.out.println("Vai jus gribat, lai labirints un cels tiktu paraditi parskatami? (y - yes, citadi izvade pec parauga)");
         boolean visualMode = scanner.next().equalsIgnoreCase("y");
 
-        System.out.print("Rindu skaits:");
-        int rowQuantity = scanner.nextInt();
-        System.out.print("Kolonu skaits:");
-        int columnQuantity = scanner.nextInt();
-
-        System.out.println("Auto fill maze (y - yes | n - no)?");
-        String answer = scanner.next();
-        if (answer.equalsIgnoreCase("n")) {
-            int[][] mazeMatrix = new int[rowQuantity][columnQuantity];
-            for (int i = 0; i < rowQuantity; i++)
-                for (int j = 0; j < columnQuantity; j++)
-                    mazeMatrix[i][j] = scanner.nextInt();
-            maze = new Maze(mazeMatrix);
-            System.out.println();
-        } else if (answer.equalsIgnoreCase("y")) {
-            maze = new Maze(rowQuantity, columnQuantity);
+        // Если аргументом передано имя файла, то лабиринт открывается из него (см. MazeFile)
+        if (args.length > 0) {
+            maze = Maze.open(args[0]);
         } else {
-            System.out.println("Incorrect option!");
-            return;
+            System.out.print("Rindu skaits:");
+            int rowQuantity = scanner.nextInt();
+            System.out.print("Kolonu skaits:");
+            int columnQuantity = scanner.nextInt();
+
+            System.out.println("Auto fill maze (y - yes | n - no)?");
+            String answer = scanner.next();
+            if (answer.equalsIgnoreCase("n")) {
+                System.out.println("0 - eja, 1 - siena, 2.." + Maze.MAX_COST + " - eja ar cenu");
+                int[][] mazeMatrix = new int[rowQuantity][columnQuantity];
+                for (int i = 0; i < rowQuantity; i++)
+                    for (int j = 0; j < columnQuantity; j++)
+                        mazeMatrix[i][j] = scanner.nextInt();
+                try {
+                    maze = new Maze(mazeMatrix);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Incorrect option!");
+                    return;
+                }
+                System.out.println();
+            } else if (answer.equalsIgnoreCase("y")) {
+                maze = new Maze(rowQuantity, columnQuantity);
+            } else {
+                System.out.println("Incorrect option!");
+                return;
+            }
         }
 
         if (visualMode) {
@@ -41,7 +70,17 @@ public class Menu {
         System.out.println("\nKuru algoritmu jus gribat izmantot, lai atrast celu? \n" +
                 "1 - vilnu algorims\n" +
                 "2 - dziluma meklesanas algoritms\n" +
-                "3 - rekursivs algoritms\n");
+                "3 - rekursivs algoritms\n" +
+                "4 - vilnu algoritms pa sunam\n" +
+                "5 - A* algoritms\n" +
+                "6 - lecienu punktu meklesana (JPS)\n" +
+                "7 - divvirzienu vilnu algoritms\n" +
+                "8 - paralels vilnu algoritms\n" +
+                "9 - strupcelu aizpildisana\n" +
+                "10 - Deikstras algoritms ar eju cenam (Dial)\n" +
+                "11 - sekosana sienai (kreisas rokas likums)\n" +
+                "12 - Tremo algoritms\n" +
+                "13 - bitu paralels vilnu algoritms\n");
         System.out.print("Algoritma numurs: ");
         int algorithmNum = scanner.nextInt();
 
@@ -56,6 +95,36 @@ public class Menu {
             case 3:
                 path = PathFinder.getPathByRecursiveAlgorithm(maze);
                 break;
+            case 4:
+                path = PathFinder.getPathByGridWaveAlgorithm(maze);
+                break;
+            case 5:
+                path = HeuristicPathFinder.getPathByAStar(maze);
+                break;
+            case 6:
+                path = HeuristicPathFinder.getPathByJumpPointSearch(maze);
+                break;
+            case 7:
+                path = PathFinder.getPathByBidirectionalWaveAlgorithm(maze);
+                break;
+            case 8:
+                path = PathFinder.getPathByParallelWaveAlgorithm(maze);
+                break;
+            case 9:
+                path = PathFinder.getPathByDeadEndFilling(maze);
+                break;
+            case 10:
+                path = PathFinder.getPathByDialAlgorithm(maze);
+                break;
+            case 11:
+                path = LowMemoryPathFinder.getPathByWallFollower(maze);
+                break;
+            case 12:
+                path = LowMemoryPathFinder.getPathByTremauxAlgorithm(maze);
+                break;
+            case 13:
+                path = BitParallelPathFinder.getPathByBitParallelWave(maze);
+                break;
             default:
                 System.out.println("Incorrect option!");
                 return;
@@ -69,4 +138,31 @@ public class Menu {
             System.out.println(path);
         }
     }
+
+    /**
+     * @return количество потоков или -1, если аргумент не является числом
+     */
+    private static int parseThreadsQuantity(String argument) {
+        try {
+            return Integer.parseInt(argument);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void runBatch(String manifest, int threadsQuantity) throws IOException, InterruptedException {
+        List<BatchSolver.Job> jobs;
+        try (BufferedReader reader = manifest.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(manifest))) {
+            jobs = BatchSolver.readManifest(reader);
+        } catch (IllegalArgumentException e) {
+            // Сообщение уже содержит номер строки манифеста: "Line N: ..."
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        System.out.println("# job\tpath length\tgeneration (ms)\tsolving (ms)");
+        BatchSolver.solve(jobs, threadsQuantity, System.out::println);
+    }
 }
@@ -1,20 +1,70 @@
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 
 
 /**
- * Представляет собой путь - список координат всех точек через которые нужно пройти, чтобы добраться от входа к выходу
+ * Представляет собой путь - последовательность всех точек через которые нужно пройти, чтобы добраться от входа
+ * к выходу. Хранится компактно: координаты первой точки и по 2 бита на каждый следующий шаг (направление из
+ * PathFinder.DIRECTION_Y/DIRECTION_X), координаты точек вычисляются только при обходе
  */
 public class Path {
-    private ArrayList<Coordinates> path;
+    private final int startY;
+    private final int startX;
+    private final int length;
+    private final long[] directions;
+
     private int count;
+    private int currentY;
+    private int currentX;
 
     /**
-     * @param steps любая коллекция, которая хранит координаты, желательно последовательно
+     * @param steps любая коллекция, которая хранит координаты соседних точек последовательно
+     * @throws IllegalArgumentException если соседние в коллекции точки не являются соседними клетками
      */
     public Path(Collection<Coordinates> steps) {
-        this.path = new ArrayList<>(steps);
-        this.count = 0;
+        PathBuilder builder = null;
+        Iterator<Coordinates> iterator = steps.iterator();
+        if (iterator.hasNext()) {
+            Coordinates first = iterator.next();
+            builder = new PathBuilder(first.getY(), first.getX());
+        }
+        while (iterator.hasNext()) {
+            Coordinates step = iterator.next();
+            int deltaY = step.getY() - builder.getY();
+            int deltaX = step.getX() - builder.getX();
+            if (Math.abs(deltaY) + Math.abs(deltaX) != 1)
+                throw new IllegalArgumentException("Steps are not adjacent: " + step);
+            builder.moveTo(step.getY(), step.getX());
+        }
+
+        this.startY = builder == null ? 0 : builder.getStartY();
+        this.startX = builder == null ? 0 : builder.getStartX();
+        this.length = builder == null ? 0 : builder.getLength();
+        this.directions = builder == null ? new long[0] : builder.getDirections();
+        this.currentY = startY;
+        this.currentX = startX;
+    }
+
+    /**
+     * @param startY номер ряда первой точки
+     * @param startX номер колонки первой точки
+     * @param length количество точек в пути (0 - пустой путь)
+     * @param directions направления шагов, по 2 бита на шаг
+     */
+    Path(int startY, int startX, int length, long[] directions) {
+        this.startY = startY;
+        this.startX = startX;
+        this.length = length;
+        this.directions = directions;
+        this.currentY = startY;
+        this.currentX = startX;
+    }
+
+    /**
+     * @return пустой путь (выход недостижим)
+     */
+    public static Path empty() {
+        return new Path(0, 0, 0, new long[0]);
     }
 
     /**
@@ -22,7 +72,7 @@ public class Path {
      * @return true - остались; false - не остались
      */
     public boolean hasNext() {
-        return count < path.size();
+        return count < length;
     }
 
     /**
@@ -30,13 +80,51 @@ public class Path {
      * @return следующий шаг
      */
     public Coordinates nextStep() {
-        return path.get(count++);
+        if (count > 0) {
+            int direction = getDirection(count - 1);
+            currentY += PathFinder.DIRECTION_Y[direction];
+            currentX += PathFinder.DIRECTION_X[direction];
+        }
+        count++;
+        return new Coordinates(currentY, currentX);
+    }
+
+    /**
+     * @param index номер шага (от 0 до getLength() - 2)
+     * @return направление шага из точки index в точку index + 1
+     */
+    public int getDirection(int index) {
+        return (int) (directions[index >>> 5] >>> ((index & 31) << 1)) & 3;
+    }
+
+    /**
+     * @return количество точек в пути (0 - пустой путь)
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    public int getStartX() {
+        return startX;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (Coordinates step : path) sb.append(step.toString());
+        int y = startY;
+        int x = startX;
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                int direction = getDirection(i - 1);
+                y += PathFinder.DIRECTION_Y[direction];
+                x += PathFinder.DIRECTION_X[direction];
+            }
+            sb.append('(').append(y).append("; ").append(x).append(')');
+        }
         return sb.toString();
     }
 }
@@ -0,0 +1,148 @@
+import java.util.Arrays;
+
+/**
+ * Собирает путь шаг за шагом сразу в компактном виде (по 2 бита на шаг), не создавая объектов на каждую точку.
+ * Алгоритмы, которые восстанавливают путь от финиша к старту, собирают его в обратном порядке и получают
+ * итоговый путь через buildReversed()
+ */
+public class PathBuilder {
+
+    // Направления в порядке PathFinder.DIRECTION_Y/DIRECTION_X; противоположное направление d равно 3 - d
+    private static final int LEFT = 0;
+    private static final int UP = 1;
+    private static final int DOWN = 2;
+    private static final int RIGHT = 3;
+
+    private final int startY;
+    private final int startX;
+    private int y;
+    private int x;
+    private int steps;
+    private long[] directions;
+
+    /**
+     * @param startY номер ряда первой точки
+     * @param startX номер колонки первой точки
+     */
+    public PathBuilder(int startY, int startX) {
+        this.startY = startY;
+        this.startX = startX;
+        this.y = startY;
+        this.x = startX;
+        this.directions = new long[4];
+    }
+
+    /**
+     * Добавляет шаг в соседнюю клетку
+     * @param direction направление (индекс в PathFinder.DIRECTION_Y/DIRECTION_X)
+     * @return этот же объект
+     */
+    public PathBuilder step(int direction) {
+        if ((steps >>> 5) == directions.length) directions = Arrays.copyOf(directions, directions.length * 2);
+        directions[steps >>> 5] |= (long) direction << ((steps & 31) << 1);
+        steps++;
+        y += PathFinder.DIRECTION_Y[direction];
+        x += PathFinder.DIRECTION_X[direction];
+        return this;
+    }
+
+    /**
+     * Убирает последний шаг, текущей точкой снова становится предыдущая
+     * @return этот же объект
+     * @throws IllegalStateException если в пути нет шагов
+     */
+    public PathBuilder back() {
+        if (steps == 0) throw new IllegalStateException("Path has no steps");
+        int direction = getLastDirection();
+        steps--;
+        directions[steps >>> 5] &= ~(3L << ((steps & 31) << 1));
+        y -= PathFinder.DIRECTION_Y[direction];
+        x -= PathFinder.DIRECTION_X[direction];
+        return this;
+    }
+
+    /**
+     * @return направление последнего шага или -1, если шагов нет
+     */
+    public int getLastDirection() {
+        if (steps == 0) return -1;
+        int last = steps - 1;
+        return (int) (directions[last >>> 5] >>> ((last & 31) << 1)) & 3;
+    }
+
+    /**
+     * Добавляет шаги по прямой до заданной клетки, которая должна лежать в том же ряду или колонке
+     * @param targetY номер ряда
+     * @param targetX номер колонки
+     * @return этот же объект
+     */
+    public PathBuilder moveTo(int targetY, int targetX) {
+        if (targetY != y && targetX != x) throw new IllegalArgumentException("Not on a straight line: (" + targetY + "; " + targetX + ")");
+        int direction = targetX < x ? LEFT : targetY < y ? UP : targetY > y ? DOWN : RIGHT;
+        while (y != targetY || x != targetX) step(direction);
+        return this;
+    }
+
+    /**
+     * Добавляет все шаги пути, который начинается в текущей клетке
+     * @param path путь
+     * @return этот же объект
+     */
+    public PathBuilder append(Path path) {
+        for (int i = 0; i < path.getLength() - 1; i++) step(path.getDirection(i));
+        return this;
+    }
+
+    /**
+     * @return путь от первой точки до текущей
+     */
+    public Path build() {
+        return new Path(startY, startX, steps + 1, getDirections());
+    }
+
+    /**
+     * @return путь от текущей точки до первой (шаги в обратном порядке и в противоположных направлениях)
+     */
+    public Path buildReversed() {
+        long[] reversed = new long[(steps + 31) >>> 5];
+        for (int i = 0; i < steps; i++) {
+            int direction = (int) (directions[i >>> 5] >>> ((i & 31) << 1)) & 3;
+            int index = steps - 1 - i;
+            reversed[index >>> 5] |= (long) (3 - direction) << ((index & 31) << 1);
+        }
+        return new Path(y, x, steps + 1, reversed);
+    }
+
+    long[] getDirections() {
+        return Arrays.copyOf(directions, (steps + 31) >>> 5);
+    }
+
+    /**
+     * @return количество точек в пути
+     */
+    public int getLength() {
+        return steps + 1;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    public int getStartX() {
+        return startX;
+    }
+
+    /**
+     * @return номер ряда текущей (последней) точки
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return номер колонки текущей (последней) точки
+     */
+    public int getX() {
+        return x;
+    }
+}
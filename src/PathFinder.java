@@ -1,358 +1,1044 @@
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
 
+/**
+ * Неинформированные алгоритмы поиска пути от входа (0;0) к выходу (правый нижний угол). У каждого алгоритма есть
+ * вариант с заданными клетками старта и финиша, к которому обращается вариант для углов.
+ * Алгоритмы только читают лабиринт и не имеют общего изменяемого состояния (DIRECTION_Y и DIRECTION_X не
+ * изменяются), поэтому их можно вызывать одновременно из разных потоков, пока лабиринт никто не изменяет
+ */
 public class PathFinder {
 
+    // Смещения к соседям клетки в порядке: слева, сверху, снизу, справа
+    static final int[] DIRECTION_Y = {0, -1, 1, 0};
+    static final int[] DIRECTION_X = {-1, 0, 0, 1};
+
+    // Количество клеток фронта на одну задачу параллельного волнового алгоритма
+    private static final int PARALLEL_WAVE_CHUNK = 4096;
+
+    // Количество рядов в полосе, которую заполняет одна задача при заполнении тупиков
+    private static final int DEAD_END_STRIP = 256;
+
     /**
      * Возвращает путь, полученный с помощью волнового алгоритма
      * @param maze объект готового лабиринта
-     * @return объект пути
+     * @return объект пути (пустой, если выход недостижим)
      */
     public static Path getPathByWaveAlgorithm(Maze maze)  {
-        int[][] mazeMatrix = maze.getMazeMatrix();
-
-
-        // Назначаются координаты старта и финиша
-        Coordinates finish = new Coordinates(mazeMatrix.length - 1, mazeMatrix[0].length - 1);
-        Coordinates start = new Coordinates(0, 0);
-
-        // Создаёт очередь и добавляет в неё координаты старта
-        Queue<Coordinates> vertexesQueue = new ArrayDeque();
-        vertexesQueue.add(start);
-
-        // Создаёт карту, где каждой паре координат соответсвует номер их порядка (удалённость от старта)
-        HashMap<Coordinates, Integer> vertexCoordinatesAndOrder = new HashMap<>();
-        vertexCoordinatesAndOrder.put(start, 0);
-
-        // Получает список связей
-        ArrayList<Edge> graph = getGraphForReadyMaze(mazeMatrix);
-
-        // В цикле из очереди достаётся пара координат и высчитывается порядок его соседей, которые ещё не были посещены
-        boolean isFound = false;
-        while (vertexesQueue.peek() != null) {
-            Coordinates currentVertex = vertexesQueue.poll();
-            int order = vertexCoordinatesAndOrder.get(currentVertex) + 1;
-
-            // Каждый не посещенный сосед добавляется в очередь и ему присваивается его порядок, и если его координаты
-            // соответсвуют финишу цикл прерывается
-            for (Edge edge : graph) {
-                Coordinates nextOrderVertex;
-                if (edge.getFirstVertexCoordinates().equals(currentVertex))
-                    nextOrderVertex = edge.getSecondVertexCoordinates();
-                else if (edge.getSecondVertexCoordinates().equals(currentVertex))
-                    nextOrderVertex = edge.getFirstVertexCoordinates();
-                else continue;
-
-                if (!vertexCoordinatesAndOrder.containsKey(nextOrderVertex)) {
-                    vertexCoordinatesAndOrder.put(nextOrderVertex, order);
-                    if (nextOrderVertex.equals(finish)) {
-                        isFound = true;
-                        break;
-                    }
-                    vertexesQueue.add(nextOrderVertex);
+        return getPathByWaveAlgorithm(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
+
+    /**
+     * Возвращает путь между заданными клетками, полученный с помощью волнового алгоритма по графу ключевых узлов.
+     * Старт и финиш становятся узлами графа, даже если лежат на прямом участке коридора
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByWaveAlgorithm(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        getCellIndex(mazeMatrix, startY, startX);
+        getCellIndex(mazeMatrix, finishY, finishX);
+        SolverProbe probe = SolverProbe.start("wave");
+
+        // Строится граф ключевых узлов и находятся ид старта и финиша
+        JunctionGraph graph = new JunctionGraph(mazeMatrix, startY, startX, finishY, finishX);
+        if (probe != null) probe.endPhase("graph");
+        int start = graph.getVertexId(startY, startX);
+        int finish = graph.getVertexId(finishY, finishX);
+        if (start == -1 || finish == -1) return Path.empty();
+
+        // Создаётся очередь на массиве (каждый узел попадает в неё не больше одного раза) и в неё добавляется старт.
+        // Для каждого узла запоминается узел, из которого до него дошла волна (-1 - ещё не посещён)
+        int[] vertexesQueue = new int[graph.getVertexQuantity()];
+        int head = 0;
+        int tail = 0;
+        vertexesQueue[tail++] = start;
+
+        int[] previousVertex = new int[graph.getVertexQuantity()];
+        Arrays.fill(previousVertex, -1);
+        previousVertex[start] = start;
+
+        // В цикле из очереди достаётся узел и каждый его не посещённый сосед добавляется в очередь,
+        // и если сосед является финишем цикл прерывается
+        long scannedEdges = 0;
+        int frontierPeak = 1;
+        while (head < tail && previousVertex[finish] == -1) {
+            int currentVertex = vertexesQueue[head++];
+
+            for (int i = graph.getFirstNeighborIndex(currentVertex); i < graph.getEndNeighborIndex(currentVertex); i++) {
+                int nextOrderVertex = graph.getNeighbor(i);
+                if (previousVertex[nextOrderVertex] == -1) {
+                    previousVertex[nextOrderVertex] = currentVertex;
+                    vertexesQueue[tail++] = nextOrderVertex;
                 }
             }
+            scannedEdges += graph.getEndNeighborIndex(currentVertex) - graph.getFirstNeighborIndex(currentVertex);
+            frontierPeak = Math.max(frontierPeak, tail - head);
+        }
 
-            if (isFound) break;
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(head, scannedEdges, frontierPeak);
         }
+        if (previousVertex[finish] == -1) return Path.empty();
 
         /*
-         Начиная с финиша, в каждой следующей итерации, для каждого следующего узла ищется сосед чей порядок на 1
-         меньше, чем порядок текущего и добавляется в коллекцию (вместе с координатами шагов между ними) для создания
-         объекта пути, пока не будет достигнута стартовая позиция
+         Начиная с финиша, по запомненным предшественникам путь проходится по прямым участкам от узла к узлу,
+         пока не будет достигнута стартовая позиция
          */
-        Coordinates controlPoint = finish;
-        ArrayList<Coordinates> allSteps = new ArrayList<>();
-        allSteps.add(controlPoint);
-        int order = vertexCoordinatesAndOrder.get(finish);
-
-
-        while (order > 0) {
-            order--;
-            for (Edge edge : graph) {
-                Coordinates nextControlPoint = edge.getOtherVertexCoordinatesOrNull(controlPoint);
-                if (nextControlPoint != null &&
-                        vertexCoordinatesAndOrder.containsKey(nextControlPoint) &&
-                        vertexCoordinatesAndOrder.get(nextControlPoint) == order) {
-
-                    addStepsWithinPoints(allSteps, controlPoint, nextControlPoint);
-                    allSteps.add(nextControlPoint);
-                    controlPoint = nextControlPoint;
-                    break;
-                }
-            }
+        PathBuilder allSteps = new PathBuilder(graph.getY(finish), graph.getX(finish));
+        for (int controlPoint = finish; controlPoint != start; controlPoint = previousVertex[controlPoint]) {
+            int nextControlPoint = previousVertex[controlPoint];
+            allSteps.moveTo(graph.getY(nextControlPoint), graph.getX(nextControlPoint));
         }
 
-        // Переворот колекции, так как это путь от финища к старту
-        Collections.reverse(allSteps);
-
-        return new Path(allSteps);
+        // Переворот пути, так как это путь от финища к старту
+        Path path = allSteps.buildReversed();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
     }
 
     /**
      * Возвращает путь, полученный с помощью поиска в глубину
      * @param maze объект готового лабиринта
-     * @return объект пути
+     * @return объект пути (пустой, если выход недостижим)
      */
     public static Path getPathByDepthFirstSearch(Maze maze) {
-        int[][] mazeMatrix = maze.getMazeMatrix();
+        return getPathByDepthFirstSearch(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
 
-        // Получается список связей графа лабиринта и задаются координаты финиша
-        ArrayList<Edge> graph = getGraphForReadyMaze(mazeMatrix);
-        Coordinates finishCoordinates = new Coordinates(mazeMatrix.length - 1, mazeMatrix[0].length - 1);
+    /**
+     * Возвращает путь между заданными клетками, полученный с помощью поиска в глубину по графу ключевых узлов
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByDepthFirstSearch(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        getCellIndex(mazeMatrix, startY, startX);
+        getCellIndex(mazeMatrix, finishY, finishX);
+        SolverProbe probe = SolverProbe.start("dfs");
+
+        // Строится граф ключевых узлов и находятся ид старта и финиша
+        JunctionGraph graph = new JunctionGraph(mazeMatrix, startY, startX, finishY, finishX);
+        if (probe != null) probe.endPhase("graph");
+        int start = graph.getVertexId(startY, startX);
+        int finish = graph.getVertexId(finishY, finishX);
+        if (start == -1 || finish == -1) return Path.empty();
 
-        // Создаётся стек для хранения пути и в него помещается координаты старта
-        Stack<Coordinates> pathStack = new Stack<>();
-        pathStack.push(new Coordinates(0,0));
+        // Создаётся стек на массиве для хранения пути и в него помещается старт. Для каждого узла хранится индекс
+        // следующего ещё не просмотренного соседа, а посещённые узлы отмечаются, чтобы не заходить в них повторно
+        int[] pathStack = new int[graph.getVertexQuantity()];
+        int size = 0;
+        pathStack[size++] = start;
 
-        // В каждой итерации получаются координаты с верхушки стека и, если они соответсвуют финишным, то цикл прерывается
-        while (true) {
-            Coordinates lastCoordinates = pathStack.peek();
-            if (lastCoordinates.equals(finishCoordinates)) break;
+        int[] nextNeighborIndex = new int[graph.getVertexQuantity()];
+        for (int i = 0; i < nextNeighborIndex.length; i++) nextNeighborIndex[i] = graph.getFirstNeighborIndex(i);
+
+        BitSet visited = new BitSet(graph.getVertexQuantity());
+        visited.set(start);
+
+        // В каждой итерации берётся узел с верхушки стека и, если он является финишем, то цикл прерывается
+        long expandedNodes = 1;
+        long scannedEdges = 0;
+        int frontierPeak = 1;
+        while (size > 0 && pathStack[size - 1] != finish) {
+            int lastVertex = pathStack[size - 1];
             boolean isFound = false;
 
-            // Если для этого узла существует сосед, то он добавляется в стек, а связь удаляется из списка, иначе верхний элемент стека выбрасывается
-            for (int i = 0; i < graph.size(); i++) {
-                Coordinates nextCoordinates = graph.get(i).getOtherVertexCoordinatesOrNull(lastCoordinates);
+            // Если для этого узла существует не посещённый сосед, то он добавляется в стек,
+            // иначе верхний элемент стека выбрасывается
+            while (nextNeighborIndex[lastVertex] < graph.getEndNeighborIndex(lastVertex)) {
+                int nextVertex = graph.getNeighbor(nextNeighborIndex[lastVertex]++);
+                scannedEdges++;
 
-                if (nextCoordinates != null) {
+                if (!visited.get(nextVertex)) {
                     isFound = true;
-                    pathStack.push(nextCoordinates);
-                    graph.remove(i);
+                    visited.set(nextVertex);
+                    pathStack[size++] = nextVertex;
+                    expandedNodes++;
+                    frontierPeak = Math.max(frontierPeak, size);
                     break;
                 }
             }
 
             if (!isFound) {
-                pathStack.pop();
+                size--;
             }
         }
 
-        // Стек содержит только значимые пункты, поэтому создается список для хранения полного пути и заполняется
-        ArrayList<Coordinates> fullPath = new ArrayList<>();
-        fullPath.add(new Coordinates(0, 0));
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(expandedNodes, scannedEdges, frontierPeak);
+        }
+        if (size == 0) return Path.empty();
 
-        for (int i = 1; i < pathStack.size(); i++) {
-            Coordinates c1 = pathStack.get(i - 1);
-            Coordinates c2 = pathStack.get(i);
-            addStepsWithinPoints(fullPath, c1, c2);
-            fullPath.add(c2);
+        // Стек содержит только значимые пункты, между ними путь идёт по прямой
+        PathBuilder fullPath = new PathBuilder(graph.getY(start), graph.getX(start));
+        for (int i = 1; i < size; i++) {
+            fullPath.moveTo(graph.getY(pathStack[i]), graph.getX(pathStack[i]));
         }
 
-        return new Path(fullPath);
+        Path path = fullPath.build();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
     }
 
     /**
-     * Возвращает путь, полученный с помощью рекурсивного алгоритма
+     * Возвращает путь, полученный с помощью волнового алгоритма, который распространяется прямо по клеткам матрицы.
+     * Порядок (удалённость от старта) хранится в массиве int с индексом y * ширина + x, очередь - кольцевой буфер
+     * (IntRingQueue), поэтому на каждую посещённую клетку не создаётся ни одного объекта
      * @param maze объект готового лабиринта
-     * @return объект пути
+     * @return объект пути (пустой, если выход недостижим)
      */
-    public static Path getPathByRecursiveAlgorithm(Maze maze) {
-        int[][] mazeMatrix = maze.getMazeMatrix();
+    public static Path getPathByGridWaveAlgorithm(Maze maze) {
+        return getPathByGridWaveAlgorithm(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
 
-        // Создается стек для хранения шагов пути, набор для хранения посещенных точек и задаются координаты финиша
-        Stack<Coordinates> pathStack = new Stack<>();
-        HashSet<Coordinates> visitedPoints = new HashSet<>();
-        Coordinates finish = new Coordinates(mazeMatrix.length - 1, mazeMatrix[0].length - 1);;
+    /**
+     * Возвращает путь между заданными клетками, полученный с помощью волнового алгоритма по клеткам матрицы
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByGridWaveAlgorithm(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+
+        // Назначаются индексы старта и финиша
+        int start = getCellIndex(mazeMatrix, startY, startX);
+        int finish = getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
 
-        // Вызывается метод с координатами финиша
-        recursiveMethod(mazeMatrix, visitedPoints, pathStack, finish.getY(), finish.getX());
+        SolverProbe probe = SolverProbe.start("gridWave");
+        int[] orders = getDistanceField(mazeMatrix, start, finish, probe);
+        if (orders[finish] == -1) return Path.empty();
 
-        return new Path(pathStack);
+        Path path = getPathByDistanceField(mazeMatrix, orders, finish);
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
     }
 
     /**
-     * Рекурсивный метод. Вызывает сам себя, чтобы узнать есть ли путь впереди, проверяя ближайших соседей.
-     * Если на каком-то этапе достигается старт, то возвращатся true, и его координаты, как и все предыдущии
-     * координаты в цепочке в обратном порядке добавляются в стек. В случае если вызов приводит в стену или в уже
-     * посещённую точку, то возвращается false
+     * Распространяет волну от источника и возвращает поле расстояний
      * @param mazeMatrix матрица лабиринта
-     * @param visitedPoints набор координат посещённых точек
-     * @param pathStack стек для хранения пути
-     * @param y
-     * @param x
-     * @return ведёт ли этот шаг к старту
+     * @param source индекс источника (y * ширина + x), который должен быть проходом
+     * @param stop индекс клетки, после достижения которой волна останавливается, или -1, чтобы обойти всё
+     * @param probe замер, в который записывается этап "search", или null
+     * @return расстояния от источника (-1 - клетка не достигнута), индекс y * ширина + x
      */
-    private static boolean recursiveMethod(int[][] mazeMatrix, HashSet<Coordinates> visitedPoints, Stack<Coordinates> pathStack, int y, int x) {
+    static int[] getDistanceField(BitMatrix mazeMatrix, int source, int stop, SolverProbe probe) {
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
 
-        Coordinates currentPoint = new Coordinates(y, x);
+        int[] orders = new int[rowsQuantity * columnQuantity];
+        Arrays.fill(orders, -1);
+        orders[source] = 0;
 
-        if (mazeMatrix[y][x] == 1 || visitedPoints.contains(currentPoint)) return false;
-        if (y == 0 && x == 0) {
-            pathStack.add(new Coordinates(0, 0));
-            return true;
-        }
+        IntRingQueue queue = new IntRingQueue();
+        queue.add(source);
 
-        visitedPoints.add(currentPoint);
+        long expandedNodes = 0;
+        int frontierPeak = 1;
+        while (!queue.isEmpty() && (stop == -1 || orders[stop] == -1)) {
+            int current = queue.poll();
+            expandedNodes++;
+            int y = current / columnQuantity;
+            int x = current - y * columnQuantity;
+            int order = orders[current] + 1;
 
-        if (x > 0 && recursiveMethod(mazeMatrix, visitedPoints, pathStack, y, x - 1)) {
-            pathStack.push(currentPoint);
-            return true;
-        }
+            // Каждый не посещённый сосед-проход получает свой порядок и добавляется в очередь
+            for (int direction = 0; direction < 4; direction++) {
+                int nextY = y + DIRECTION_Y[direction];
+                int nextX = x + DIRECTION_X[direction];
+                if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
 
-        if (y > 0 && recursiveMethod(mazeMatrix, visitedPoints, pathStack, y - 1, x)) {
-            pathStack.push(currentPoint);
-            return true;
-        }
+                int next = current + DIRECTION_Y[direction] * columnQuantity + DIRECTION_X[direction];
+                if (orders[next] != -1 || mazeMatrix.get(nextY, nextX)) continue;
 
-        if (y < mazeMatrix.length - 1 && recursiveMethod(mazeMatrix, visitedPoints, pathStack, y + 1, x)) {
-            pathStack.push(currentPoint);
-            return true;
+                orders[next] = order;
+                queue.add(next);
+            }
+            frontierPeak = Math.max(frontierPeak, queue.size());
         }
 
-        if (x < mazeMatrix[0].length - 1 && recursiveMethod(mazeMatrix, visitedPoints, pathStack, y, x + 1)) {
-            pathStack.push(currentPoint);
-            return true;
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(expandedNodes, 4 * expandedNodes, frontierPeak);
         }
-        
-        return false;
+        return orders;
     }
 
     /**
-     * Заполняет список координатами точек между двумя ключевыми точками
-     * @param allSteps список с координатами точек (шагов)
-     * @param firstPoint координаты первого ключевого узла
-     * @param secondPoint координаты второго ключевого узла
+     * @return индекс клетки y * ширина + x
+     * @throws IllegalArgumentException если клетка вне лабиринта
      */
-    private static void addStepsWithinPoints(ArrayList<Coordinates> allSteps, Coordinates firstPoint, Coordinates secondPoint) {
-        if (firstPoint.getY() == secondPoint.getY()) {
-            int from = firstPoint.getX();
-            int to = secondPoint.getX();
-
-            if (from < to) {
-                for (int i = from + 1; i < to; i++) {
-                    allSteps.add(new Coordinates(firstPoint.getY(), i));
+    static int getCellIndex(BitMatrix mazeMatrix, int y, int x) {
+        if (y < 0 || y >= mazeMatrix.getRowsQuantity() || x < 0 || x >= mazeMatrix.getColumnQuantity())
+            throw new IllegalArgumentException("Cell is outside of the maze: (" + y + "; " + x + ")");
+        return y * mazeMatrix.getColumnQuantity() + x;
+    }
+
+    /**
+     * Восстанавливает путь по полю расстояний
+     * @param mazeMatrix матрица лабиринта
+     * @param distances расстояния от источника (-1 - клетка не достигнута), индекс y * ширина + x
+     * @param target индекс клетки, до которой нужен путь
+     * @return путь от источника к цели
+     */
+    static Path getPathByDistanceField(BitMatrix mazeMatrix, int[] distances, int target) {
+        // Переворот пути, так как спуск идёт от цели к источнику
+        return descendDistanceField(mazeMatrix, distances, target).buildReversed();
+    }
+
+    /**
+     * Спускается по полю расстояний: начиная с цели, на каждом шаге переходит в соседа, чьё расстояние
+     * на 1 меньше, пока не будет достигнута клетка с расстоянием 0 (источник волны)
+     * @param mazeMatrix матрица лабиринта
+     * @param distances расстояния от источника (-1 - клетка не достигнута), индекс y * ширина + x
+     * @param target индекс клетки, с которой начинается спуск
+     * @return шаги от цели к источнику
+     */
+    static PathBuilder descendDistanceField(BitMatrix mazeMatrix, int[] distances, int target) {
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+
+        int current = target;
+        PathBuilder allSteps = new PathBuilder(current / columnQuantity, current % columnQuantity);
+
+        while (distances[current] > 0) {
+            int y = current / columnQuantity;
+            int x = current - y * columnQuantity;
+
+            for (int direction = 0; direction < 4; direction++) {
+                int nextY = y + DIRECTION_Y[direction];
+                int nextX = x + DIRECTION_X[direction];
+                if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+
+                int next = current + DIRECTION_Y[direction] * columnQuantity + DIRECTION_X[direction];
+                if (distances[next] == distances[current] - 1) {
+                    current = next;
+                    allSteps.step(direction);
+                    break;
                 }
+            }
+        }
+
+        return allSteps;
+    }
+
+    /**
+     * Параллельный волновой алгоритм в общем пуле ForkJoinPool
+     * @param maze объект готового лабиринта
+     * @return объект пути (пустой, если выход недостижим)
+     */
+    public static Path getPathByParallelWaveAlgorithm(Maze maze) {
+        return getPathByParallelWaveAlgorithm(maze, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Возвращает путь, полученный волновым алгоритмом, который раскрывает фронт по слоям на нескольких ядрах.
+     * Фронт слоя делится на части, каждая задача пула раскрывает свою часть и собирает найденные клетки в свой
+     * буфер, а следующий фронт склеивается из этих буферов. Посещённые клетки отмечаются в общей битовой маске
+     * (AtomicLongArray) через compareAndSet, поэтому каждую клетку забирает ровно одна задача.
+     * Для клетки запоминается только номер слоя по модулю 3 (один байт вместо int): расстояния соседних клеток
+     * отличаются не больше чем на 1, поэтому остатка достаточно, чтобы при спуске найти соседа из предыдущего слоя.
+     * Спуск идёт в том же порядке направлений, что и у getPathByGridWaveAlgorithm, поэтому путь совпадает с ним.
+     * Небольшие фронты (в идеальных лабиринтах фронт обычно узкий) раскрываются в текущем потоке, так что
+     * ускорение заметно на широких фронтах: открытых и сильно разветвлённых лабиринтах
+     * @param maze объект готового лабиринта
+     * @param pool пул, в котором раскрываются слои
+     * @return объект пути (пустой, если выход недостижим)
+     */
+    public static Path getPathByParallelWaveAlgorithm(Maze maze, ForkJoinPool pool) {
+        return getPathByParallelWaveAlgorithm(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1, pool);
+    }
+
+    /**
+     * Параллельный волновой алгоритм между заданными клетками в общем пуле ForkJoinPool
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByParallelWaveAlgorithm(Maze maze, int startY, int startX, int finishY, int finishX) {
+        return getPathByParallelWaveAlgorithm(maze, startY, startX, finishY, finishX, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Возвращает путь между заданными клетками, полученный параллельным волновым алгоритмом
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @param pool пул, в котором раскрываются слои
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByParallelWaveAlgorithm(Maze maze, int startY, int startX, int finishY, int finishX,
+                                                      ForkJoinPool pool) {
+        BitMatrix mazeMatrix = maze.getCells();
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+        int start = getCellIndex(mazeMatrix, startY, startX);
+        int finish = getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
+
+        SolverProbe probe = SolverProbe.start("parallelWave");
+        AtomicLongArray visited = new AtomicLongArray((rowsQuantity * columnQuantity + 63) >>> 6);
+        byte[] levels = new byte[rowsQuantity * columnQuantity];
+        visited.set(start >>> 6, 1L << start);
+
+        // Фронт хранится в буфере того же вида, что возвращает expandFrontier: размер, а затем клетки
+        int[] frontier = {1, start};
+        int frontierSize = 1;
+        byte level = 0;
+        long expandedNodes = 0;
+        int frontierPeak = 1;
+
+        while (frontierSize > 0 && (visited.get(finish >>> 6) & (1L << finish)) == 0) {
+            expandedNodes += frontierSize;
+            level = (byte) (level == 2 ? 0 : level + 1);
+
+            if (frontierSize <= PARALLEL_WAVE_CHUNK) {
+                frontier = expandFrontier(mazeMatrix, visited, levels, level, frontier, 1, frontierSize + 1);
             } else {
-                for (int i = from - 1; i > to; i--) {
-                    allSteps.add(new Coordinates(firstPoint.getY(), i));
+                int[] currentFrontier = frontier;
+                int chunksQuantity = (frontierSize + PARALLEL_WAVE_CHUNK - 1) / PARALLEL_WAVE_CHUNK;
+                int end = frontierSize + 1;
+                byte currentLevel = level;
+                int[][] parts = new int[chunksQuantity][];
+                pool.submit(() -> IntStream.range(0, chunksQuantity).parallel().forEach(chunk -> {
+                    int from = 1 + chunk * PARALLEL_WAVE_CHUNK;
+                    parts[chunk] = expandFrontier(mazeMatrix, visited, levels, currentLevel, currentFrontier,
+                            from, Math.min(from + PARALLEL_WAVE_CHUNK, end));
+                })).join();
+
+                int nextSize = 0;
+                for (int[] part : parts) nextSize += part[0];
+                frontier = new int[nextSize + 1];
+                frontier[0] = nextSize;
+                int offset = 1;
+                for (int[] part : parts) {
+                    System.arraycopy(part, 1, frontier, offset, part[0]);
+                    offset += part[0];
                 }
             }
 
-        } else {
-            int from = firstPoint.getY();
-            int to = secondPoint.getY();
+            frontierSize = frontier[0];
+            frontierPeak = Math.max(frontierPeak, frontierSize);
+        }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(expandedNodes, 4 * expandedNodes, frontierPeak);
+        }
+        if ((visited.get(finish >>> 6) & (1L << finish)) == 0) return Path.empty();
+
+        // Спуск от финиша: в каждом шаге первый посещённый сосед из предыдущего слоя
+        int current = finish;
+        PathBuilder allSteps = new PathBuilder(finishY, finishX);
+        while (current != start) {
+            int y = current / columnQuantity;
+            int x = current - y * columnQuantity;
+            int previousLevel = levels[current] == 0 ? 2 : levels[current] - 1;
+
+            for (int direction = 0; direction < 4; direction++) {
+                int nextY = y + DIRECTION_Y[direction];
+                int nextX = x + DIRECTION_X[direction];
+                if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
 
-            if (from < to) {
-                for (int i = from + 1; i < to; i++) {
-                    allSteps.add(new Coordinates(i, firstPoint.getX()));
+                int next = current + DIRECTION_Y[direction] * columnQuantity + DIRECTION_X[direction];
+                if ((visited.get(next >>> 6) & (1L << next)) != 0 && levels[next] == previousLevel) {
+                    current = next;
+                    allSteps.step(direction);
+                    break;
                 }
-            } else {
-                for (int i = from - 1; i > to; i--) {
-                    allSteps.add(new Coordinates(i, firstPoint.getX()));
+            }
+        }
+
+        Path path = allSteps.buildReversed();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
+    }
+
+    /**
+     * Раскрывает часть фронта: каждый не посещённый сосед-проход забирается через compareAndSet и получает слой
+     * @param from индекс первой клетки части в буфере фронта
+     * @param to индекс после последней клетки части
+     * @return буфер, в котором первый элемент - количество найденных клеток, а затем сами клетки
+     */
+    private static int[] expandFrontier(BitMatrix mazeMatrix, AtomicLongArray visited, byte[] levels, byte level,
+                                        int[] frontier, int from, int to) {
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+        int[] next = new int[Math.max(16, 2 * (to - from) + 1)];
+        int size = 0;
+
+        for (int i = from; i < to; i++) {
+            int current = frontier[i];
+            int y = current / columnQuantity;
+            int x = current - y * columnQuantity;
+
+            for (int direction = 0; direction < 4; direction++) {
+                int nextY = y + DIRECTION_Y[direction];
+                int nextX = x + DIRECTION_X[direction];
+                if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+                if (mazeMatrix.get(nextY, nextX)) continue;
+
+                int cell = current + DIRECTION_Y[direction] * columnQuantity + DIRECTION_X[direction];
+                int wordIndex = cell >>> 6;
+                long bit = 1L << cell;
+                long word = visited.get(wordIndex);
+                boolean isClaimed = false;
+                while ((word & bit) == 0) {
+                    if (visited.compareAndSet(wordIndex, word, word | bit)) {
+                        isClaimed = true;
+                        break;
+                    }
+                    word = visited.get(wordIndex);
                 }
+                if (!isClaimed) continue;
+
+                levels[cell] = level;
+                if (size + 1 == next.length) next = Arrays.copyOf(next, next.length * 2);
+                next[++size] = cell;
             }
         }
+
+        next[0] = size;
+        return next;
     }
 
     /**
-     * Возвращает граф для готового лабиринта
-     * @param mazeMatrix матрица лабиринта
-     * @return список связей в этом лабиринте
+     * Возвращает самый дешёвый путь с учётом стоимости клеток (см. Maze.MAX_COST)
+     * @param maze объект готового лабиринта
+     * @return объект пути (пустой, если выход недостижим)
      */
-    private static ArrayList<Edge> getGraphForReadyMaze(int[][] mazeMatrix) {
-        ArrayList<Edge> graph = new ArrayList<>();
-        horizontalEdges(mazeMatrix, graph);
-        verticalEdges(mazeMatrix, graph);
-        return graph;
+    public static Path getPathByDialAlgorithm(Maze maze) {
+        return getPathByDialAlgorithm(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
     }
 
     /**
-     * Проходится по каждому ряду и объедияет ключевые узлы
-     * @param mazeMatrix матрица лабиринта
-     * @param graph список для заполнения
+     * Возвращает самый дешёвый путь между заданными клетками, полученный алгоритмом Дейкстры с очередью из корзин
+     * (алгоритм Дайала). Вход в клетку стоит от 1 до Maze.MAX_COST, поэтому все ещё не раскрытые расстояния лежат
+     * в пределах MAX_COST от текущего, и достаточно MAX_COST + 1 корзин (IntRingQueue), выбираемых по остатку
+     * от деления расстояния. Корзины проходятся по кругу, а устаревшие записи пропускаются при извлечении,
+     * так что время работы почти линейно, и на клетку не создаётся ни одного объекта. Путь восстанавливается
+     * по запомненным направлениям, как в A*
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
      */
-    private static void horizontalEdges(int[][] mazeMatrix, ArrayList<Edge> graph) {
-        // Устанавливается флаг, что предыдущего узла в этом ряду еще нет
-        boolean havePrev = false;
-        Coordinates previousVertex = null;
-
-        // Для каждого ряда
-        for (int j = 0; j < mazeMatrix.length; j++) {
-            havePrev = false;
-
-            // Проходится по всем ячейкам в ряду
-            for (int i = 0; i < mazeMatrix[0].length; i++) {
-
-                //Если текущая ячейка является проходом
-                if (mazeMatrix[j][i] == 0) {
-
-                    //Если ячейка не имеет предшественника в этом ряду (самое начало или перед этой ячейкой была стена),
-                    // то она устанавливатся как предшествующая и цикл переходит к след. итерации
-                    if (!havePrev) {
-                        havePrev = true;
-                        previousVertex = new Coordinates(j, i);
-                        continue;
-                    }
+    public static Path getPathByDialAlgorithm(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        byte[] costs = maze.getCosts();
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
 
-                    // Если справа стена или конец ряда... Иначе если снизу или сверху от текущей есть проход
-                    // (узел не находится просто на прямой)
-                    if ((i < mazeMatrix[0].length - 1 && mazeMatrix[j][i + 1] == 1) || i == mazeMatrix[0].length - 1) {
-                        graph.add(new Edge(previousVertex, new Coordinates(j, i)));
-                        havePrev = false;
+        int start = getCellIndex(mazeMatrix, startY, startX);
+        int finish = getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
 
-                    } else if ((j > 0 && mazeMatrix[j - 1][i] == 0) ||
-                            (j < mazeMatrix.length - 1 && mazeMatrix[j + 1][i] == 0)) {
+        SolverProbe probe = SolverProbe.start("dial");
+        int[] distances = new int[rowsQuantity * columnQuantity];
+        Arrays.fill(distances, -1);
+        byte[] cameFrom = new byte[rowsQuantity * columnQuantity];
 
-                        graph.add(new Edge(previousVertex, new Coordinates(j, i)));
-                        previousVertex = new Coordinates(j, i);
-                    }
-                } else {
-                    if (havePrev) {
-                        havePrev = false;
-                    }
+        IntRingQueue[] buckets = new IntRingQueue[Maze.MAX_COST + 1];
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new IntRingQueue();
+        distances[start] = 0;
+        buckets[0].add(start);
+
+        // Количество записей во всех корзинах, включая устаревшие
+        int pending = 1;
+        long expandedNodes = 0;
+        int frontierPeak = 1;
+        search:
+        for (int distance = 0; pending > 0; distance++) {
+            IntRingQueue bucket = buckets[distance % buckets.length];
+            while (!bucket.isEmpty()) {
+                int current = bucket.poll();
+                pending--;
+                if (distances[current] != distance) continue;
+                if (current == finish) break search;
+                expandedNodes++;
+
+                int y = current / columnQuantity;
+                int x = current - y * columnQuantity;
+                for (int direction = 0; direction < 4; direction++) {
+                    int nextY = y + DIRECTION_Y[direction];
+                    int nextX = x + DIRECTION_X[direction];
+                    if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+                    if (mazeMatrix.get(nextY, nextX)) continue;
+
+                    int next = current + DIRECTION_Y[direction] * columnQuantity + DIRECTION_X[direction];
+                    int nextDistance = distance + (costs == null || costs[next] == 0 ? 1 : costs[next]);
+                    if (distances[next] != -1 && distances[next] <= nextDistance) continue;
+
+                    distances[next] = nextDistance;
+                    cameFrom[next] = (byte) direction;
+                    buckets[nextDistance % buckets.length].add(next);
+                    pending++;
                 }
+                frontierPeak = Math.max(frontierPeak, pending);
             }
         }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(expandedNodes, 4 * expandedNodes, frontierPeak);
+        }
+        if (distances[finish] == -1) return Path.empty();
+
+        // Путь восстанавливается от финиша к старту шагами против запомненных направлений
+        PathBuilder allSteps = new PathBuilder(finishY, finishX);
+        while (allSteps.getY() != startY || allSteps.getX() != startX) {
+            allSteps.step(3 - cameFrom[allSteps.getY() * columnQuantity + allSteps.getX()]);
+        }
+
+        Path path = allSteps.buildReversed();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
     }
 
     /**
-     * Проходится по каждой колонке и объедияет ключевые узлы
-     * @param mazeMatrix матрица лабиринта
-     * @param graph список для заполнения
+     * Заполнение тупиков в общем пуле ForkJoinPool
+     * @param maze объект готового лабиринта
+     * @return объект пути (пустой, если выход недостижим)
+     */
+    public static Path getPathByDeadEndFilling(Maze maze) {
+        return getPathByDeadEndFilling(maze, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Возвращает путь, полученный заполнением тупиков: каждая клетка-проход (кроме старта и финиша), у которой
+     * не больше одного открытого соседа, замуровывается в копии матрицы, после чего проверяется её единственный
+     * сосед, и так по цепочке. В идеальном лабиринте остаётся только коридор решения, в лабиринте с циклами -
+     * коридор решения вместе с циклами. Не нужно ни очереди, ни отметок посещения, матрица проходится по словам.
+     *
+     * Матрица делится на полосы по DEAD_END_STRIP рядов, и полосы заполняются параллельно. Каждая полоса пишет
+     * только в свои ряды (ряды начинаются с нового слова, поэтому полосы не делят слова), а соседние ряды чужих
+     * полос читает из снимков, сделанных перед раундом. Снимок может только отставать (клетки лишь замуровываются),
+     * поэтому полоса никогда не замурует лишнего. Если за раунд изменился крайний ряд какой-нибудь полосы, делается
+     * следующий раунд, в котором соседние полосы проверяют только свои крайние ряды и идут по цепочкам от них.
+     *
+     * Оставшийся коридор проходится от старта; если на нём встречается развилка (цикл), путь находится волной
+     * по оставшимся клеткам
+     * @param maze объект готового лабиринта
+     * @param pool пул, в котором заполняются полосы
+     * @return объект пути (пустой, если выход недостижим)
+     */
+    public static Path getPathByDeadEndFilling(Maze maze, ForkJoinPool pool) {
+        return getPathByDeadEndFilling(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1, pool);
+    }
+
+    /**
+     * Заполнение тупиков между заданными клетками в общем пуле ForkJoinPool
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
      */
-    private static void verticalEdges(int[][] mazeMatrix, ArrayList<Edge> graph) {
-        // Устанавливается флаг, что предыдущего узла в этом ряду еще нет
-        boolean havePrev = false;
-        Coordinates previousVertex = null;
-
-        // Для каждой колонки
-        for (int j = 0; j < mazeMatrix[0].length; j++) {
-            havePrev = false;
-
-            // По каждой ячейке
-            for (int i = 0; i < mazeMatrix.length; i++) {
-
-                //Если текущая ячейка является проходом
-                if (mazeMatrix[i][j] == 0) {
-
-                    //Если ячейка не имеет предшественника в этой колонке (самый верх или перед этой ячейкой была стена),
-                    // то она устанавливатся как предшествующая и цикл переходит к след. итерации
-                    if (!havePrev) {
-                        havePrev = true;
-                        previousVertex = new Coordinates(i, j);
-                        continue;
+    public static Path getPathByDeadEndFilling(Maze maze, int startY, int startX, int finishY, int finishX) {
+        return getPathByDeadEndFilling(maze, startY, startX, finishY, finishX, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Возвращает путь между заданными клетками, полученный заполнением тупиков. Старт и финиш не замуровываются,
+     * поэтому коридор между ними остаётся, даже если клетка лежит в середине коридора или в тупике
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @param pool пул, в котором заполняются полосы
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByDeadEndFilling(Maze maze, int startY, int startX, int finishY, int finishX,
+                                               ForkJoinPool pool) {
+        BitMatrix mazeMatrix = maze.getCells();
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+        int start = getCellIndex(mazeMatrix, startY, startX);
+        int finish = getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
+
+        SolverProbe probe = SolverProbe.start("deadEndFilling");
+        BitMatrix filled = mazeMatrix.copy();
+        int stripsQuantity = (rowsQuantity + DEAD_END_STRIP - 1) / DEAD_END_STRIP;
+        boolean[] isBoundaryChanged = new boolean[stripsQuantity];
+
+        boolean isFullSweep = true;
+        boolean isChanged = true;
+        while (isChanged) {
+            // Снимки рядов, соседних с полосами: над первым рядом и под последним рядом каждой полосы
+            long[][] rowsAbove = new long[stripsQuantity][];
+            long[][] rowsBelow = new long[stripsQuantity][];
+            for (int strip = 0; strip < stripsQuantity; strip++) {
+                int firstRow = strip * DEAD_END_STRIP;
+                int lastRow = Math.min(firstRow + DEAD_END_STRIP, rowsQuantity) - 1;
+                if (firstRow > 0) rowsAbove[strip] = copyRow(filled, firstRow - 1);
+                if (lastRow < rowsQuantity - 1) rowsBelow[strip] = copyRow(filled, lastRow + 1);
+            }
+
+            boolean isCurrentFullSweep = isFullSweep;
+            pool.submit(() -> IntStream.range(0, stripsQuantity).parallel().forEach(strip -> {
+                int firstRow = strip * DEAD_END_STRIP;
+                int lastRow = Math.min(firstRow + DEAD_END_STRIP, rowsQuantity) - 1;
+                isBoundaryChanged[strip] = fillStrip(filled, firstRow, lastRow, rowsAbove[strip], rowsBelow[strip],
+                        isCurrentFullSweep, start, finish);
+            })).join();
+
+            isFullSweep = false;
+            isChanged = false;
+            if (stripsQuantity > 1)
+                for (boolean isStripChanged : isBoundaryChanged) isChanged |= isStripChanged;
+        }
+
+        if (probe != null) probe.endPhase("filling");
+
+        // Проход по оставшемуся коридору от старта, пока у клетки ровно один открытый сосед кроме предыдущего
+        PathBuilder allSteps = new PathBuilder(startY, startX);
+        int previousDirection = -1;
+        while (allSteps.getY() * columnQuantity + allSteps.getX() != finish) {
+            int y = allSteps.getY();
+            int x = allSteps.getX();
+            int nextDirection = -1;
+            int openQuantity = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                if (direction == 3 - previousDirection) continue;
+                int nextY = y + DIRECTION_Y[direction];
+                int nextX = x + DIRECTION_X[direction];
+                if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+                if (filled.get(nextY, nextX)) continue;
+                nextDirection = direction;
+                openQuantity++;
+            }
+
+            if (openQuantity == 0) return Path.empty();
+            if (openQuantity > 1) {
+                // Осталась развилка: кратчайший путь ищется волной по незамурованным клеткам
+                int[] orders = getDistanceField(filled, start, finish, null);
+                if (orders[finish] == -1) return Path.empty();
+                Path path = getPathByDistanceField(filled, orders, finish);
+                if (probe != null) probe.endPhase("reconstruction");
+                return path;
+            }
+            allSteps.step(nextDirection);
+            previousDirection = nextDirection;
+        }
+
+        Path path = allSteps.build();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
+    }
+
+    /**
+     * Замуровывает тупики в рядах полосы
+     * @param filled матрица, в которой замуровываются клетки
+     * @param firstRow первый ряд полосы
+     * @param lastRow последний ряд полосы
+     * @param rowAbove снимок ряда над полосой или null
+     * @param rowBelow снимок ряда под полосой или null
+     * @param isFullSweep true - проверяются все ряды полосы; false - только крайние
+     * @param start индекс старта, который не замуровывается
+     * @param finish индекс финиша, который тоже не замуровывается
+     * @return true - изменился первый или последний ряд полосы
+     */
+    private static boolean fillStrip(BitMatrix filled, int firstRow, int lastRow, long[] rowAbove, long[] rowBelow,
+                                     boolean isFullSweep, int start, int finish) {
+        int columnQuantity = filled.getColumnQuantity();
+        boolean isBoundaryChanged = false;
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            if (!isFullSweep && row != firstRow && row != lastRow) continue;
+
+            for (int w = 0; w < filled.getWordsPerRow(); w++) {
+                long open = ~filled.getWord(row, w) & filled.getWordMask(w);
+                while (open != 0) {
+                    int x = (w << 6) + Long.numberOfTrailingZeros(open);
+                    open &= open - 1;
+
+                    // Цепочка: замурованный тупик может сделать тупиком своего единственного соседа
+                    int y = row;
+                    while (true) {
+                        int cell = y * columnQuantity + x;
+                        if (cell == start || cell == finish || filled.get(y, x)) break;
+
+                        int nextDirection = -1;
+                        int openQuantity = 0;
+                        for (int direction = 0; direction < 4 && openQuantity < 2; direction++) {
+                            if (isOpen(filled, y + DIRECTION_Y[direction], x + DIRECTION_X[direction],
+                                    firstRow, lastRow, rowAbove, rowBelow)) {
+                                nextDirection = direction;
+                                openQuantity++;
+                            }
+                        }
+                        if (openQuantity > 1) break;
+
+                        filled.set(y, x);
+                        if (y == firstRow || y == lastRow) isBoundaryChanged = true;
+                        if (nextDirection == -1) break;
+
+                        y += DIRECTION_Y[nextDirection];
+                        x += DIRECTION_X[nextDirection];
+                        if (y < firstRow || y > lastRow) break;
                     }
+                }
+            }
+        }
 
-                    // Если снизу стена или конец колонки... Иначе если справа или слева от текущей есть проход
-                    // (узел не находится просто на прямой)
-                    if ((i < mazeMatrix.length - 1 && mazeMatrix[i + 1][j] == 1) || i == mazeMatrix.length - 1) {
-                        graph.add(new Edge(previousVertex, new Coordinates(i, j)));
-                        havePrev = false;
+        return isBoundaryChanged;
+    }
 
-                    } else if ((j > 0 && mazeMatrix[i][j - 1] == 0) ||
-                            (j < mazeMatrix[0].length - 1 && mazeMatrix[i][j + 1] == 0)) {
+    /**
+     * @return true - клетка внутри матрицы и открыта (ряды соседних полос берутся из снимков)
+     */
+    private static boolean isOpen(BitMatrix filled, int y, int x, int firstRow, int lastRow,
+                                  long[] rowAbove, long[] rowBelow) {
+        if (x < 0 || x >= filled.getColumnQuantity()) return false;
+        if (y < firstRow) return rowAbove != null && (rowAbove[x >>> 6] & (1L << x)) == 0;
+        if (y > lastRow) return rowBelow != null && (rowBelow[x >>> 6] & (1L << x)) == 0;
+        return !filled.get(y, x);
+    }
+
+    private static long[] copyRow(BitMatrix matrix, int y) {
+        long[] row = new long[matrix.getWordsPerRow()];
+        for (int w = 0; w < row.length; w++) row[w] = matrix.getWord(y, w);
+        return row;
+    }
+
+    /**
+     * Возвращает путь, полученный с помощью двунаправленного волнового алгоритма: волны распространяются по клеткам
+     * одновременно от старта и от финиша, каждая со своим полем расстояний и своей очередью. За одну итерацию
+     * целиком раскрывается один слой той волны, у которой фронт меньше. Если во время раскрытия слоя волна коснулась
+     * клетки, уже достигнутой другой волной, то после завершения слоя поиск останавливается, а из всех точек
+     * встречи выбирается та, через которую путь короче. Путь сшивается из спуска по обоим полям расстояний
+     * @param maze объект готового лабиринта
+     * @return объект пути (пустой, если выход недостижим)
+     */
+    public static Path getPathByBidirectionalWaveAlgorithm(Maze maze) {
+        return getPathByBidirectionalWaveAlgorithm(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
+
+    /**
+     * Возвращает путь между заданными клетками, полученный с помощью двунаправленного волнового алгоритма
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByBidirectionalWaveAlgorithm(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+
+        int start = getCellIndex(mazeMatrix, startY, startX);
+        int finish = getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
+
+        SolverProbe probe = SolverProbe.start("bidirectional");
+        int[] startOrders = new int[rowsQuantity * columnQuantity];
+        int[] finishOrders = new int[rowsQuantity * columnQuantity];
+        Arrays.fill(startOrders, -1);
+        Arrays.fill(finishOrders, -1);
+        startOrders[start] = 0;
+        finishOrders[finish] = 0;
 
-                        graph.add(new Edge(previousVertex, new Coordinates(i, j)));
-                        previousVertex = new Coordinates(i, j);
+        IntRingQueue startQueue = new IntRingQueue();
+        IntRingQueue finishQueue = new IntRingQueue();
+        startQueue.add(start);
+        finishQueue.add(finish);
+
+        // Точка встречи и длина пути через неё (в шагах)
+        int meeting = start == finish ? start : -1;
+        int bestLength = start == finish ? 0 : Integer.MAX_VALUE;
+
+        long expandedNodes = 0;
+        int frontierPeak = 2;
+        while (meeting == -1 && !startQueue.isEmpty() && !finishQueue.isEmpty()) {
+            frontierPeak = Math.max(frontierPeak, startQueue.size() + finishQueue.size());
+            boolean fromStart = startQueue.size() <= finishQueue.size();
+            IntRingQueue queue = fromStart ? startQueue : finishQueue;
+            int[] orders = fromStart ? startOrders : finishOrders;
+            int[] otherOrders = fromStart ? finishOrders : startOrders;
+
+            // Раскрывается ровно один слой волны
+            expandedNodes += queue.size();
+            for (int layerSize = queue.size(); layerSize > 0; layerSize--) {
+                int current = queue.poll();
+                int y = current / columnQuantity;
+                int x = current - y * columnQuantity;
+                int order = orders[current] + 1;
+
+                for (int direction = 0; direction < 4; direction++) {
+                    int nextY = y + DIRECTION_Y[direction];
+                    int nextX = x + DIRECTION_X[direction];
+                    if (nextY < 0 || nextY >= rowsQuantity || nextX < 0 || nextX >= columnQuantity) continue;
+
+                    int next = current + DIRECTION_Y[direction] * columnQuantity + DIRECTION_X[direction];
+                    if (mazeMatrix.get(nextY, nextX)) continue;
+
+                    if (orders[next] == -1) {
+                        orders[next] = order;
+                        queue.add(next);
                     }
-                } else {
-                    if (havePrev) {
-                        havePrev = false;
+
+                    if (otherOrders[next] != -1 && orders[next] + otherOrders[next] < bestLength) {
+                        bestLength = orders[next] + otherOrders[next];
+                        meeting = next;
                     }
                 }
             }
         }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(expandedNodes, 4 * expandedNodes, frontierPeak);
+        }
+        if (meeting == -1) return Path.empty();
+
+        // Половина от старта до точки встречи и половина от точки встречи до финиша
+        Path startHalf = descendDistanceField(mazeMatrix, startOrders, meeting).buildReversed();
+        Path finishHalf = descendDistanceField(mazeMatrix, finishOrders, meeting).build();
+
+        Path path = new PathBuilder(startY, startX).append(startHalf).append(finishHalf).build();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
+    }
+
+    /**
+     * Возвращает путь, полученный с помощью рекурсивного алгоритма. Рекурсия развёрнута в цикл с явным стеком,
+     * поэтому глубина стека вызовов не зависит от длины пути
+     * @param maze объект готового лабиринта
+     * @return объект пути (пустой, если выход недостижим)
+     */
+    public static Path getPathByRecursiveAlgorithm(Maze maze) {
+        return getPathByRecursiveAlgorithm(maze, 0, 0, maze.getRowsQuantity() - 1, maze.getColumnQuantity() - 1);
+    }
+
+    /**
+     * Возвращает путь между заданными клетками, полученный с помощью рекурсивного алгоритма
+     * @param maze объект готового лабиринта
+     * @param startY номер ряда старта
+     * @param startX номер колонки старта
+     * @param finishY номер ряда финиша
+     * @param finishX номер колонки финиша
+     * @return объект пути (пустой, если финиш недостижим или одна из клеток стена)
+     * @throws IllegalArgumentException если клетка вне лабиринта
+     */
+    public static Path getPathByRecursiveAlgorithm(Maze maze, int startY, int startX, int finishY, int finishX) {
+        BitMatrix mazeMatrix = maze.getCells();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+        int start = getCellIndex(mazeMatrix, startY, startX);
+        int finish = getCellIndex(mazeMatrix, finishY, finishX);
+        if (mazeMatrix.get(startY, startX) || mazeMatrix.get(finishY, finishX)) return Path.empty();
+
+        // Поиск начинается с финиша, найденная цепочка клеток от финиша к старту переписывается в путь
+        SolverProbe probe = SolverProbe.start("recursive");
+        int[] cellStack = searchFromFinish(mazeMatrix, start, finish, probe);
+        if (cellStack.length == 0) return Path.empty();
+
+        PathBuilder pathSteps = new PathBuilder(startY, startX);
+        for (int i = cellStack.length - 2; i >= 0; i--) {
+            pathSteps.moveTo(cellStack[i] / columnQuantity, cellStack[i] % columnQuantity);
+        }
+
+        Path path = pathSteps.build();
+        if (probe != null) probe.endPhase("reconstruction");
+        return path;
     }
 
+    /**
+     * Итеративная версия рекурсивного метода. Каждый кадр стека - это клетка (индекс y * ширина + x) и номер
+     * следующего соседа, которого нужно проверить (слева, сверху, снизу, справа - тот же порядок, что и у рекурсии).
+     * Если клетка-сосед не стена и ещё не посещена, то она отмечается в битовой матрице посещённых клеток и кладётся
+     * на стек; если соседи закончились - кадр снимается. Как только на верхушке оказывается старт, стек содержит
+     * цепочку клеток от финиша к старту
+     * @param mazeMatrix матрица лабиринта
+     * @param start индекс старта (проход)
+     * @param finish индекс финиша (проход), с которого начинается поиск
+     * @param probe замер, в который записывается этап "search", или null
+     * @return индексы клеток от финиша к старту или пустой массив, если старт недостижим
+     */
+    private static int[] searchFromFinish(BitMatrix mazeMatrix, int start, int finish, SolverProbe probe) {
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int columnQuantity = mazeMatrix.getColumnQuantity();
+
+        BitMatrix visitedPoints = new BitMatrix(rowsQuantity, columnQuantity);
+        int[] cellStack = new int[64];
+        byte[] nextDirection = new byte[64];
+        int size = 0;
+
+        cellStack[size] = finish;
+        nextDirection[size++] = 0;
+        visitedPoints.set(finish / columnQuantity, finish % columnQuantity);
+
+        long expandedNodes = 1;
+        long scannedEdges = 0;
+        int frontierPeak = 1;
+        while (size > 0) {
+            int current = cellStack[size - 1];
+            if (current == start) break;
+
+            int direction = nextDirection[size - 1];
+            if (direction == 4) {
+                size--;
+                continue;
+            }
+            nextDirection[size - 1]++;
+            scannedEdges++;
 
-}
\ No newline at end of file
+            int y = current / columnQuantity + DIRECTION_Y[direction];
+            int x = current % columnQuantity + DIRECTION_X[direction];
+            if (y < 0 || y >= rowsQuantity || x < 0 || x >= columnQuantity) continue;
+            if (mazeMatrix.get(y, x) || visitedPoints.get(y, x)) continue;
+
+            visitedPoints.set(y, x);
+            if (size == cellStack.length) {
+                cellStack = Arrays.copyOf(cellStack, size * 2);
+                nextDirection = Arrays.copyOf(nextDirection, size * 2);
+            }
+            cellStack[size] = y * columnQuantity + x;
+            nextDirection[size++] = 0;
+            expandedNodes++;
+            frontierPeak = Math.max(frontierPeak, size);
+        }
+
+        if (probe != null) {
+            probe.endPhase("search");
+            probe.search(expandedNodes, scannedEdges, frontierPeak);
+        }
+        return Arrays.copyOf(cellStack, size);
+    }
+}
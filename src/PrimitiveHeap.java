@@ -0,0 +1,85 @@
+import java.util.Arrays;
+
+/**
+ * Двоичная куча (минимум сверху) на примитивных массивах: каждому элементу int соответствует ключ long.
+ * Составной ключ позволяет упорядочивать по двум величинам сразу, например (f << 32) | h
+ */
+public class PrimitiveHeap {
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public PrimitiveHeap() {
+        keys = new long[64];
+        values = new int[64];
+    }
+
+    /**
+     * Добавляет элемент в кучу
+     * @param key ключ (чем меньше, тем раньше будет извлечён элемент)
+     * @param value значение
+     */
+    public void push(long key, int value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+
+        // Просеивание вверх
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            keys[i] = keys[parent];
+            values[i] = values[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    /**
+     * @return ключ минимального элемента
+     */
+    public long peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * Извлекает минимальный элемент
+     * @return значение минимального элемента
+     */
+    public int pop() {
+        int top = values[0];
+        long key = keys[--size];
+        int value = values[size];
+
+        // Просеивание вниз последнего элемента, поставленного на место корня
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+            if (key <= keys[child]) break;
+            keys[i] = keys[child];
+            values[i] = values[child];
+            i = child;
+        }
+        keys[i] = key;
+        values[i] = value;
+
+        return top;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.function.Function;
+
+/**
+ * Алгоритмы поиска пути, доступные по имени (для пакетного режима и манифестов).
+ * Все алгоритмы потокобезопасны: они не имеют общего состояния, только читают лабиринт и каждый вызов выделяет
+ * свои собственные массивы. Поэтому один и тот же лабиринт можно одновременно решать из нескольких потоков,
+ * если его никто не изменяет
+ */
+public enum SolverAlgorithm {
+
+    WAVE("wave", PathFinder::getPathByWaveAlgorithm),
+    DEPTH_FIRST_SEARCH("dfs", PathFinder::getPathByDepthFirstSearch),
+    RECURSIVE("recursive", PathFinder::getPathByRecursiveAlgorithm),
+    GRID_WAVE("gridWave", PathFinder::getPathByGridWaveAlgorithm),
+    A_STAR("aStar", HeuristicPathFinder::getPathByAStar),
+    JUMP_POINT_SEARCH("jps", HeuristicPathFinder::getPathByJumpPointSearch),
+    BIDIRECTIONAL_WAVE("bidirectional", PathFinder::getPathByBidirectionalWaveAlgorithm),
+    PARALLEL_WAVE("parallelWave", PathFinder::getPathByParallelWaveAlgorithm),
+    DEAD_END_FILLING("deadEndFilling", PathFinder::getPathByDeadEndFilling),
+    DIAL("dial", PathFinder::getPathByDialAlgorithm),
+    WALL_FOLLOWER("wallFollower", LowMemoryPathFinder::getPathByWallFollower),
+    TREMAUX("tremaux", LowMemoryPathFinder::getPathByTremauxAlgorithm),
+    BIT_PARALLEL_WAVE("bitWave", BitParallelPathFinder::getPathByBitParallelWave);
+
+    private final String name;
+    private final Function<Maze, Path> solver;
+
+    SolverAlgorithm(String name, Function<Maze, Path> solver) {
+        this.name = name;
+        this.solver = solver;
+    }
+
+    /**
+     * @param maze лабиринт
+     * @return путь от входа к выходу (пустой, если выход недостижим)
+     */
+    public Path solve(Maze maze) {
+        return solver.apply(maze);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name короткое имя алгоритма (например "gridWave")
+     * @return алгоритм с этим именем
+     * @throws IllegalArgumentException если такого алгоритма нет
+     */
+    public static SolverAlgorithm forName(String name) {
+        for (SolverAlgorithm algorithm : values())
+            if (algorithm.name.equals(name)) return algorithm;
+        throw new IllegalArgumentException("Unknown algorithm: " + name);
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Получатель сведений о работе генератора и алгоритмов поиска пути (см. SolverProbe).
+ * Методы вызываются из того потока, в котором выполняется операция, поэтому при параллельных вызовах
+ * реализация должна быть потокобезопасной
+ */
+public interface SolverListener {
+
+    /**
+     * Вызывается по завершении этапа операции
+     * @param operation имя операции (например "gridWave" или "createMaze")
+     * @param phase имя этапа (например "graph", "search", "reconstruction")
+     * @param nanos время этапа в наносекундах
+     * @param allocatedBytes количество байт, выделенных текущим потоком за этап, или -1, если JVM это не поддерживает
+     */
+    void onPhase(String operation, String phase, long nanos, long allocatedBytes);
+
+    /**
+     * Вызывается по завершении поиска
+     * @param operation имя операции
+     * @param expandedNodes количество раскрытых узлов (клеток или узлов графа)
+     * @param scannedEdges количество просмотренных рёбер (соседей)
+     * @param frontierPeak наибольший размер фронта (очереди, кучи или стека)
+     */
+    default void onSearch(String operation, long expandedNodes, long scannedEdges, int frontierPeak) {
+    }
+}
@@ -0,0 +1,152 @@
+import jdk.jfr.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Замеры этапов генерации и поиска пути. Операция получает замер через start(), который возвращает null, если
+ * не установлен SolverListener и не идёт запись JFR событий maze.SolverPhase / maze.SolverSearch.
+ * В этом случае операция не вызывает ни System.nanoTime, ни ThreadMXBean, и вся цена выключенных замеров -
+ * одно чтение volatile поля и счётчики в локальных переменных.
+ *
+ * Память считается через com.sun.management.ThreadMXBean только для текущего потока, поэтому выделения в
+ * рабочих потоках (например, в createMazeInParallel) не учитываются
+ */
+public final class SolverProbe {
+
+    @Name("maze.SolverPhase")
+    @Label("Solver Phase")
+    @Category("Maze")
+    static class PhaseEvent extends Event {
+        @Label("Operation")
+        String operation;
+        @Label("Phase")
+        String phase;
+        @Label("Allocated")
+        @DataAmount
+        long allocatedBytes;
+    }
+
+    @Name("maze.SolverSearch")
+    @Label("Solver Search")
+    @Category("Maze")
+    static class SearchEvent extends Event {
+        @Label("Operation")
+        String operation;
+        @Label("Expanded Nodes")
+        long expandedNodes;
+        @Label("Scanned Edges")
+        long scannedEdges;
+        @Label("Frontier Peak")
+        int frontierPeak;
+    }
+
+    private static final EventType PHASE_EVENT_TYPE = EventType.getEventType(PhaseEvent.class);
+    private static final EventType SEARCH_EVENT_TYPE = EventType.getEventType(SearchEvent.class);
+
+    private static volatile SolverListener listener;
+
+    private final String operation;
+    private final SolverListener currentListener;
+    private final boolean isRecording;
+    private long phaseStart;
+    private long phaseStartBytes;
+    private PhaseEvent phaseEvent;
+
+    private SolverProbe(String operation, SolverListener currentListener, boolean isRecording) {
+        this.operation = operation;
+        this.currentListener = currentListener;
+        this.isRecording = isRecording;
+        beginPhase();
+    }
+
+    /**
+     * @param newListener получатель замеров или null, чтобы их отключить
+     */
+    public static void setListener(SolverListener newListener) {
+        listener = newListener;
+    }
+
+    public static SolverListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Начинает замер операции и её первого этапа
+     * @param operation имя операции
+     * @return замер или null, если замеры выключены
+     */
+    static SolverProbe start(String operation) {
+        SolverListener currentListener = listener;
+        boolean isRecording = PHASE_EVENT_TYPE.isEnabled() || SEARCH_EVENT_TYPE.isEnabled();
+        if (currentListener == null && !isRecording) return null;
+        return new SolverProbe(operation, currentListener, isRecording);
+    }
+
+    /**
+     * Завершает текущий этап и начинает следующий
+     * @param phase имя завершённого этапа
+     */
+    void endPhase(String phase) {
+        long nanos = System.nanoTime() - phaseStart;
+        long allocatedBytes = getAllocatedBytes();
+        if (allocatedBytes >= 0) allocatedBytes -= phaseStartBytes;
+
+        if (currentListener != null) currentListener.onPhase(operation, phase, nanos, allocatedBytes);
+        if (phaseEvent != null) {
+            phaseEvent.end();
+            phaseEvent.operation = operation;
+            phaseEvent.phase = phase;
+            phaseEvent.allocatedBytes = allocatedBytes;
+            phaseEvent.commit();
+        }
+        beginPhase();
+    }
+
+    /**
+     * Сообщает счётчики поиска
+     */
+    void search(long expandedNodes, long scannedEdges, int frontierPeak) {
+        if (currentListener != null) currentListener.onSearch(operation, expandedNodes, scannedEdges, frontierPeak);
+        if (isRecording) {
+            SearchEvent event = new SearchEvent();
+            if (event.isEnabled()) {
+                event.operation = operation;
+                event.expandedNodes = expandedNodes;
+                event.scannedEdges = scannedEdges;
+                event.frontierPeak = frontierPeak;
+                event.commit();
+            }
+        }
+    }
+
+    private void beginPhase() {
+        if (isRecording) {
+            phaseEvent = new PhaseEvent();
+            if (phaseEvent.isEnabled()) phaseEvent.begin();
+            else phaseEvent = null;
+        }
+        phaseStartBytes = getAllocatedBytes();
+        phaseStart = System.nanoTime();
+    }
+
+    private static long getAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadBean = ThreadBeanHolder.THREAD_BEAN;
+        return threadBean == null ? -1 : threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // ThreadMXBean загружается только при первом включённом замере
+    private static class ThreadBeanHolder {
+
+        static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+
+        private static com.sun.management.ThreadMXBean getThreadBean() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+            com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+            if (!threadBean.isThreadAllocatedMemorySupported()) return null;
+            if (!threadBean.isThreadAllocatedMemoryEnabled()) threadBean.setThreadAllocatedMemoryEnabled(true);
+            return threadBean;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Потоковый генератор лабиринтов по алгоритму Эллера. Лабиринт выдаётся по одному ряду, и в памяти хранится только
+ * состояние, пропорциональное ширине: множества узлов текущего ряда узлов и решения о связях вправо и вниз.
+ * Поэтому высота лабиринта ограничена только местом на приёмнике. Кодировка (установленный бит - стена) и
+ * расположение узлов в чётных рядах и колонках такие же, как у MazeGenerator, результат тоже идеальный лабиринт
+ */
+public class StreamingMazeGenerator {
+    private final int rowsQuantity;
+    private final int columnQuantity;
+    private final int vertexesInRow;
+    private final int vertexesInColumn;
+    private final SplittableRandom random;
+
+    // Номер следующего выдаваемого ряда матрицы
+    private int currentRow;
+
+    // Метка множества каждого узла ряда узлов: номер колонки представителя или -1 для нового узла
+    private int[] labels;
+    // Система множеств над колонками текущего ряда узлов
+    private final int[] parent;
+    // Первая колонка с данной меткой, последняя колонка каждого множества и была ли у множества связь вниз
+    private final int[] firstColumnOfLabel;
+    private final int[] lastColumnOfSet;
+    private final boolean[] setHasDown;
+
+    private final boolean[] rightCarved;
+    private final boolean[] downCarved;
+
+    /**
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     */
+    public StreamingMazeGenerator(int rowsQuantity, int columnQuantity) {
+        this(rowsQuantity, columnQuantity, new SplittableRandom());
+    }
+
+    /**
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param random источник случайных чисел
+     */
+    public StreamingMazeGenerator(int rowsQuantity, int columnQuantity, SplittableRandom random) {
+        this.rowsQuantity = rowsQuantity;
+        this.columnQuantity = columnQuantity;
+        this.vertexesInRow = (rowsQuantity & 1) == 0 ? rowsQuantity / 2 : rowsQuantity / 2 + 1;
+        this.vertexesInColumn = (columnQuantity & 1) == 0 ? columnQuantity / 2 : columnQuantity / 2 + 1;
+        this.random = random;
+
+        labels = new int[vertexesInColumn];
+        parent = new int[vertexesInColumn];
+        firstColumnOfLabel = new int[vertexesInColumn];
+        lastColumnOfSet = new int[vertexesInColumn];
+        setHasDown = new boolean[vertexesInColumn];
+        rightCarved = new boolean[vertexesInColumn];
+        downCarved = new boolean[vertexesInColumn];
+        Arrays.fill(labels, -1);
+    }
+
+    /**
+     * Проверяет остались ли ещё не выданные ряды
+     * @return true - остались; false - не остались
+     */
+    public boolean hasNextRow() {
+        return currentRow < rowsQuantity;
+    }
+
+    /**
+     * Записывает следующий ряд матрицы в переданный массив слов (в формате ряда BitMatrix)
+     * @param row массив длиной не меньше getWordsPerRow()
+     */
+    public void nextRow(long[] row) {
+        int y = currentRow++;
+        int wordsPerRow = getWordsPerRow();
+
+        if ((y & 1) == 0) {
+            connectVertexRow(y / 2);
+
+            // Ряд узлов: стены только в нечётных колонках, где нет связи вправо
+            for (int w = 0; w < wordsPerRow; w++) row[w] = 0;
+            for (int x = 1; x < columnQuantity; x += 2) {
+                if (!rightCarved[x / 2]) row[x >>> 6] |= 1L << x;
+            }
+        } else {
+            // Ряд между рядами узлов: проходы только в чётных колонках, где есть связь вниз
+            for (int w = 0; w < wordsPerRow; w++) row[w] = -1L;
+            for (int x = 0; x < columnQuantity; x += 2) {
+                if (downCarved[x / 2]) row[x >>> 6] &= ~(1L << x);
+            }
+        }
+
+        // Дополнительный коридор в последнем ряду, как в MazeGenerator
+        if (y == rowsQuantity - 1) {
+            int lastColumn = (columnQuantity & 1) == 0 ? columnQuantity - 2 : columnQuantity - 1;
+            if ((rowsQuantity & 1) == 0) row[lastColumn >>> 6] &= ~(1L << lastColumn);
+            if ((columnQuantity & 1) == 0) row[(lastColumn + 1) >>> 6] &= ~(1L << (lastColumn + 1));
+        }
+
+        // Биты за пределами последней колонки должны оставаться сброшенными
+        int tail = columnQuantity & 63;
+        if (tail != 0) row[wordsPerRow - 1] &= (1L << tail) - 1;
+    }
+
+    /**
+     * Шаг алгоритма Эллера для одного ряда узлов: узлы без связи сверху получают новые множества, соседние узлы
+     * из разных множеств случайно соединяются вправо (в последнем ряду - всегда), затем каждое множество случайно
+     * получает связи вниз, но не меньше одной, чтобы не оказаться отрезанным
+     * @param vertexRow номер ряда узлов
+     */
+    private void connectVertexRow(int vertexRow) {
+        boolean isLastRow = vertexRow == vertexesInRow - 1;
+
+        // Узлы с одинаковой меткой (связанные через предыдущие ряды) объединяются в одно множество
+        for (int column = 0; column < vertexesInColumn; column++) {
+            parent[column] = column;
+            if (labels[column] != -1) firstColumnOfLabel[labels[column]] = -1;
+        }
+        for (int column = 0; column < vertexesInColumn; column++) {
+            int label = labels[column];
+            if (label == -1) continue;
+            if (firstColumnOfLabel[label] == -1) firstColumnOfLabel[label] = column;
+            else parent[column] = firstColumnOfLabel[label];
+        }
+
+        // Связи вправо
+        for (int column = 0; column < vertexesInColumn; column++) {
+            rightCarved[column] = false;
+            if (column == vertexesInColumn - 1) continue;
+
+            int firstRoot = find(column);
+            int secondRoot = find(column + 1);
+            if (firstRoot != secondRoot && (isLastRow || random.nextBoolean())) {
+                parent[secondRoot] = firstRoot;
+                rightCarved[column] = true;
+            }
+        }
+
+        // Связи вниз
+        for (int column = 0; column < vertexesInColumn; column++) {
+            downCarved[column] = false;
+            labels[column] = -1;
+        }
+        if (isLastRow) return;
+
+        for (int column = 0; column < vertexesInColumn; column++) {
+            int root = find(column);
+            lastColumnOfSet[root] = column;
+            setHasDown[root] = false;
+        }
+
+        // На последней колонке множества связь вниз обязательна, если до этого её не случилось
+        for (int column = 0; column < vertexesInColumn; column++) {
+            int root = find(column);
+            if (random.nextBoolean() || (lastColumnOfSet[root] == column && !setHasDown[root])) {
+                downCarved[column] = true;
+                setHasDown[root] = true;
+            }
+        }
+
+        // Узлы следующего ряда под связями вниз наследуют множество (его представителя)
+        for (int column = 0; column < vertexesInColumn; column++) {
+            if (downCarved[column]) labels[column] = find(column);
+        }
+    }
+
+    private int find(int column) {
+        while (parent[column] != column) {
+            parent[column] = parent[parent[column]];
+            column = parent[column];
+        }
+        return column;
+    }
+
+    public int getWordsPerRow() {
+        return (columnQuantity + 63) >>> 6;
+    }
+
+    public int getRowsQuantity() {
+        return rowsQuantity;
+    }
+
+    public int getColumnQuantity() {
+        return columnQuantity;
+    }
+
+    /**
+     * Генерирует лабиринт и пишет его в поток по мере готовности рядов в том же виде, что и Maze.printMazeMatrix:
+     * 1 - стена, 0 - проход, значения разделены табуляцией
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param out поток для записи
+     * @throws IOException при ошибке записи
+     */
+    public static void writeMaze(int rowsQuantity, int columnQuantity, OutputStream out) throws IOException {
+        StreamingMazeGenerator generator = new StreamingMazeGenerator(rowsQuantity, columnQuantity);
+        long[] row = new long[generator.getWordsPerRow()];
+        byte[] line = new byte[columnQuantity * 2];
+        OutputStream bufferedOut = new BufferedOutputStream(out, 1 << 16);
+
+        while (generator.hasNextRow()) {
+            generator.nextRow(row);
+            for (int x = 0; x < columnQuantity; x++) {
+                line[2 * x] = (row[x >>> 6] & (1L << x)) != 0 ? (byte) '1' : (byte) '0';
+                line[2 * x + 1] = (byte) '\t';
+            }
+            bufferedOut.write(line);
+            bufferedOut.write('\n');
+        }
+        bufferedOut.flush();
+    }
+}
@@ -0,0 +1,221 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Битовая матрица только для чтения, слова которой лежат в файле с тайлами (см. TiledMazeFile). Тайл читается
+ * с диска при первом обращении к его клеткам и хранится в кэше ограниченного размера; при переполнении вытесняется
+ * тайл, к которому дольше всего не обращались (LRU). Так как матрица является BitMatrix, все алгоритмы поиска
+ * пути работают с ней без изменений (new Maze(matrix)), а памяти нужно не больше, чем на maxCachedTiles тайлов
+ * плюс рабочие массивы самого алгоритма.
+ *
+ * Последний использованный тайл запоминается отдельно, поэтому подряд идущие обращения к клеткам одного тайла
+ * не обращаются к кэшу и не учитываются в счётчиках. Построение графа узлов (JunctionGraph) в волновом алгоритме
+ * и поиске в глубину проходит матрицу по рядам и одновременно читает не больше двух рядов тайлов: при кэше
+ * на 2 * getTileColumns() тайлов каждый тайл читается с диска один раз.
+ *
+ * Матрица потокобезопасна, так что с ней работают и параллельные алгоритмы (getPathByParallelWaveAlgorithm).
+ * Последний тайл хранится вместе со своим номером в одном неизменяемом объекте, поэтому поток не может увидеть
+ * номер одного тайла и слова другого; кэш, счётчики и чтение файла защищены блокировкой матрицы. Вытесненный тайл
+ * не переиспользуется под новый, так как другой поток ещё может читать его слова. Потоки, работающие в разных
+ * тайлах, часто обращаются к кэшу под блокировкой, поэтому параллельный поиск по такой матрице ускоряется меньше,
+ * чем по матрице в куче. Попытка изменить клетку выбрасывает UnsupportedOperationException, ошибка чтения файла -
+ * UncheckedIOException
+ */
+public class TiledBitMatrix extends BitMatrix implements Closeable {
+
+    private final FileChannel channel;
+    private final int tileShift;
+    private final int tileMask;
+    private final int tileWords;
+    private final int tileColumns;
+    private final int maxCachedTiles;
+    private final ByteBuffer readBuffer;
+
+    private final LinkedHashMap<Integer, long[]> tiles = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile Tile lastTile;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param rowsQuantity количество рядов
+     * @param columnQuantity количество колонок
+     * @param tileSize сторона тайла (степень двойки, не меньше 64)
+     * @param channel открытый файл с тайлами; закрывается вместе с матрицей
+     * @param maxCachedTiles наибольшее количество тайлов в памяти
+     */
+    TiledBitMatrix(int rowsQuantity, int columnQuantity, int tileSize, FileChannel channel, int maxCachedTiles) {
+        super(rowsQuantity, columnQuantity, null);
+        this.channel = channel;
+        this.tileShift = Integer.numberOfTrailingZeros(tileSize);
+        this.tileMask = tileSize - 1;
+        this.tileWords = tileSize >>> 6;
+        this.tileColumns = (columnQuantity + tileSize - 1) >>> tileShift;
+        this.maxCachedTiles = maxCachedTiles;
+        this.readBuffer = ByteBuffer.allocateDirect(tileSize * tileWords * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public boolean get(int y, int x) {
+        return (getWord(y, x >>> 6) & (1L << x)) != 0;
+    }
+
+    @Override
+    public long getWord(int y, int wordIndex) {
+        int x = wordIndex << 6;
+        long[] tile = getTile((y >>> tileShift) * tileColumns + (x >>> tileShift));
+        return tile[(y & tileMask) * tileWords + ((x & tileMask) >>> 6)];
+    }
+
+    @Override
+    public void set(int y, int x) {
+        throw new UnsupportedOperationException("Tiled matrix is read-only");
+    }
+
+    @Override
+    public void clear(int y, int x) {
+        throw new UnsupportedOperationException("Tiled matrix is read-only");
+    }
+
+    @Override
+    public void setWord(int y, int wordIndex, long word) {
+        throw new UnsupportedOperationException("Tiled matrix is read-only");
+    }
+
+    @Override
+    public BitMatrix asReadOnly() {
+        return this;
+    }
+
+    /**
+     * Номер тайла вместе с его словами; слова после чтения из файла не меняются
+     */
+    private static class Tile {
+
+        final int index;
+        final long[] words;
+
+        Tile(int index, long[] words) {
+            this.index = index;
+            this.words = words;
+        }
+    }
+
+    /**
+     * Возвращает слова последнего использованного тайла без блокировки, а остальные тайлы - из кэша
+     * @param tileIndex номер тайла (ряд тайла * getTileColumns() + колонка тайла)
+     * @return слова тайла по рядам
+     */
+    private long[] getTile(int tileIndex) {
+        Tile last = lastTile;
+        if (last != null && last.index == tileIndex) return last.words;
+        return getCachedTile(tileIndex);
+    }
+
+    /**
+     * Возвращает тайл из кэша или читает его из файла, при переполнении кэша вытесняя самый старый тайл
+     */
+    private synchronized long[] getCachedTile(int tileIndex) {
+        long[] tile = tiles.get(tileIndex);
+        if (tile != null) {
+            hitCount++;
+        } else {
+            missCount++;
+            tile = readTile(tileIndex);
+            if (tiles.size() >= maxCachedTiles) {
+                Iterator<Map.Entry<Integer, long[]>> eldest = tiles.entrySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictionCount++;
+            }
+            tiles.put(tileIndex, tile);
+        }
+
+        lastTile = new Tile(tileIndex, tile);
+        return tile;
+    }
+
+    private long[] readTile(int tileIndex) {
+        readBuffer.clear();
+        long position = TiledMazeFile.HEADER_SIZE + (long) tileIndex * readBuffer.capacity();
+        try {
+            while (readBuffer.hasRemaining()) {
+                if (channel.read(readBuffer, position + readBuffer.position()) == -1)
+                    throw new IOException("Unexpected end of tiled maze file");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        readBuffer.flip();
+        long[] tile = new long[(tileMask + 1) * tileWords];
+        readBuffer.asLongBuffer().get(tile);
+        return tile;
+    }
+
+    /**
+     * @return сторона тайла
+     */
+    public int getTileSize() {
+        return tileMask + 1;
+    }
+
+    /**
+     * @return количество тайлов в ряду тайлов
+     */
+    public int getTileColumns() {
+        return tileColumns;
+    }
+
+    public int getMaxCachedTiles() {
+        return maxCachedTiles;
+    }
+
+    /**
+     * @return количество тайлов в кэше
+     */
+    public synchronized int getCachedTileCount() {
+        return tiles.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return количество чтений тайлов с диска
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return доля обращений к кэшу, для которых тайл уже был в памяти (0, если обращений не было)
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Закрывает файл; тайлы из кэша освобождаются
+     * @throws IOException при ошибке закрытия файла
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        tiles.clear();
+        lastTile = null;
+        channel.close();
+    }
+}
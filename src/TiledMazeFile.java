@@ -0,0 +1,173 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Двоичный формат файла лабиринта, разбитого на квадратные тайлы. Заголовок из 20 байт: сигнатура "MZTL", версия
+ * формата, количество рядов, количество колонок и сторона тайла (int, little-endian). За ним тайлы по рядам тайлов,
+ * а внутри ряда по колонкам. Каждый тайл занимает одинаковое место: сторона тайла рядов по сторона / 64 слов long
+ * (little-endian), установленный бит - стена; у крайних тайлов клетки за пределами лабиринта сброшены.
+ *
+ * В отличие от MazeFile, где соседние по вертикали клетки лежат на расстоянии целого ряда, клетки одного тайла
+ * лежат в файле рядом, поэтому тайл читается одним обращением к диску и содержит окрестность клетки в обе стороны.
+ * Файл открывается как TiledBitMatrix, которая держит в памяти только ограниченное количество тайлов
+ */
+public class TiledMazeFile {
+
+    final static int SIGNATURE = 0x4C545A4D; // "MZTL" в little-endian
+    final static int VERSION = 1;
+    final static int HEADER_SIZE = 20;
+    final static int DEFAULT_TILE_SIZE = 256;
+    // Наибольшая сторона тайла (тайл 4096 x 4096 занимает 2 МБ)
+    final static int MAX_TILE_SIZE = 4096;
+
+    /**
+     * Сохраняет матрицу лабиринта в файл с тайлами стороной DEFAULT_TILE_SIZE
+     * @param mazeMatrix матрица лабиринта
+     * @param fileName имя файла
+     * @throws IOException при ошибке записи
+     */
+    public static void save(BitMatrix mazeMatrix, String fileName) throws IOException {
+        save(mazeMatrix, fileName, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Сохраняет матрицу лабиринта в файл. Матрица читается тайл за тайлом, поэтому её можно взять из MazeFile.open,
+     * не загружая в кучу
+     * @param mazeMatrix матрица лабиринта
+     * @param fileName имя файла
+     * @param tileSize сторона тайла: степень двойки от 64 до MAX_TILE_SIZE
+     * @throws IOException при ошибке записи
+     * @throws IllegalArgumentException при неверной стороне тайла
+     */
+    public static void save(BitMatrix mazeMatrix, String fileName, int tileSize) throws IOException {
+        checkTileSize(tileSize);
+        int rowsQuantity = mazeMatrix.getRowsQuantity();
+        int wordsPerRow = mazeMatrix.getWordsPerRow();
+        int tileWords = tileSize >>> 6;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = newBuffer(rowsQuantity, mazeMatrix.getColumnQuantity(), tileSize);
+
+            for (int firstRow = 0; firstRow < rowsQuantity; firstRow += tileSize) {
+                for (int firstWord = 0; firstWord < wordsPerRow; firstWord += tileWords) {
+                    for (int y = firstRow; y < firstRow + tileSize; y++) {
+                        for (int w = firstWord; w < firstWord + tileWords; w++) {
+                            if (buffer.remaining() < Long.BYTES) flush(channel, buffer);
+                            buffer.putLong(y < rowsQuantity && w < wordsPerRow ? mazeMatrix.getWord(y, w) : 0);
+                        }
+                    }
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Сохраняет в файл лабиринт, который выдаёт потоковый генератор. В памяти держится только один ряд тайлов
+     * (сторона тайла рядов лабиринта)
+     * @param generator потоковый генератор
+     * @param fileName имя файла
+     * @param tileSize сторона тайла: степень двойки от 64 до MAX_TILE_SIZE
+     * @throws IOException при ошибке записи
+     * @throws IllegalArgumentException при неверной стороне тайла
+     */
+    public static void save(StreamingMazeGenerator generator, String fileName, int tileSize) throws IOException {
+        checkTileSize(tileSize);
+        int wordsPerRow = generator.getWordsPerRow();
+        int tileWords = tileSize >>> 6;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = newBuffer(generator.getRowsQuantity(), generator.getColumnQuantity(), tileSize);
+
+            long[][] rows = new long[tileSize][wordsPerRow];
+            while (generator.hasNextRow()) {
+                // Набирается ряд тайлов; недостающие ряды в конце лабиринта остаются сброшенными
+                int rowsRead = 0;
+                while (rowsRead < tileSize && generator.hasNextRow()) generator.nextRow(rows[rowsRead++]);
+                for (int i = rowsRead; i < tileSize; i++) Arrays.fill(rows[i], 0);
+
+                for (int firstWord = 0; firstWord < wordsPerRow; firstWord += tileWords) {
+                    for (long[] row : rows) {
+                        for (int w = firstWord; w < firstWord + tileWords; w++) {
+                            if (buffer.remaining() < Long.BYTES) flush(channel, buffer);
+                            buffer.putLong(w < wordsPerRow ? row[w] : 0);
+                        }
+                    }
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Открывает файл лабиринта только для чтения. Тайлы читаются по мере обращения к клеткам
+     * @param fileName имя файла
+     * @param maxCachedTiles наибольшее количество тайлов в памяти
+     * @return матрица лабиринта поверх файла; её нужно закрыть после использования
+     * @throws IOException при ошибке чтения или неверном формате файла
+     * @throws IllegalArgumentException если maxCachedTiles меньше 1
+     */
+    public static TiledBitMatrix open(String fileName, int maxCachedTiles) throws IOException {
+        if (maxCachedTiles < 1) throw new IllegalArgumentException("Cache must hold at least one tile");
+
+        FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) != -1) ;
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != SIGNATURE)
+                throw new IOException("Not a tiled maze file: " + fileName);
+            int version = header.getInt();
+            if (version != VERSION) throw new IOException("Unsupported tiled maze file version: " + version);
+            int rowsQuantity = header.getInt();
+            int columnQuantity = header.getInt();
+            int tileSize = header.getInt();
+            if (rowsQuantity < 0 || columnQuantity < 0 || !isValidTileSize(tileSize))
+                throw new IOException("Corrupted tiled maze file header: " + fileName);
+
+            long tileRows = (rowsQuantity + (long) tileSize - 1) / tileSize;
+            long tileColumns = (columnQuantity + (long) tileSize - 1) / tileSize;
+            long tileBytes = (long) tileSize * tileSize / 8;
+            if (tileRows * tileColumns > Integer.MAX_VALUE)
+                throw new IOException("Too many tiles in tiled maze file: " + fileName);
+            if (channel.size() < HEADER_SIZE + tileRows * tileColumns * tileBytes)
+                throw new IOException("Tiled maze file is truncated: " + fileName);
+
+            return new TiledBitMatrix(rowsQuantity, columnQuantity, tileSize, channel, maxCachedTiles);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean isValidTileSize(int tileSize) {
+        return tileSize >= 64 && tileSize <= MAX_TILE_SIZE && Integer.bitCount(tileSize) == 1;
+    }
+
+    private static void checkTileSize(int tileSize) {
+        if (!isValidTileSize(tileSize))
+            throw new IllegalArgumentException("Tile size must be a power of two from 64 to " + MAX_TILE_SIZE + ": " + tileSize);
+    }
+
+    /**
+     * Создаёт буфер записи и помещает в него заголовок
+     */
+    private static ByteBuffer newBuffer(int rowsQuantity, int columnQuantity, int tileSize) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(SIGNATURE).putInt(VERSION).putInt(rowsQuantity).putInt(columnQuantity).putInt(tileSize);
+        return buffer;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}